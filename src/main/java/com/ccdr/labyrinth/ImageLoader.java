@@ -87,13 +87,15 @@ public enum ImageLoader {
      */
     WEAPON("/game/category/Weapon.png");
 
+    private final String path;
     private Image picture;
     /**
-     * 
+     * Images are loaded the first time they are requested, so that referencing this enum
+     * does not load every picture of the game.
      * @param path
      */
     ImageLoader(final String path) {
-        this.picture = new Image(path, 0, 0, true, true);
+        this.path = path;
     }
     /**
      * 
@@ -101,7 +103,10 @@ public enum ImageLoader {
      * 
      */
     @SuppressFBWarnings
-    public Image getImage() {
+    public synchronized Image getImage() {
+        if (this.picture == null) {
+            this.picture = new Image(this.path, 0, 0, true, true);
+        }
         return picture;
     }
 }
@@ -1,10 +1,22 @@
 package com.ccdr.labyrinth;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
 import com.ccdr.labyrinth.engine.Engine;
 import com.ccdr.labyrinth.engine.Executor;
 import com.ccdr.labyrinth.engine.Executor.ID;
 import com.ccdr.labyrinth.game.GameController;
 import com.ccdr.labyrinth.game.GameInputAdapter;
 import com.ccdr.labyrinth.game.GameJFXView;
+import com.ccdr.labyrinth.game.GamePreloader;
+import com.ccdr.labyrinth.game.ai.ComputerPlayer;
+import com.ccdr.labyrinth.game.ai.MctsStrategy;
+import com.ccdr.labyrinth.game.storage.BoardLibrary;
 import com.ccdr.labyrinth.jfx.JFXStage;
 import com.ccdr.labyrinth.menu.MenuController;
 import com.ccdr.labyrinth.menu.MenuInputAdapter;
@@ -21,6 +33,12 @@ import javafx.application.Platform;
  */
 public final class Labyrinth {
     private static final int TARGET_FRAMERATE = 120;
+    //path of a board library to play on, instead of generating every labyrinth
+    private static final String BOARDS_PROPERTY = "labyrinth.boards";
+    //how many players, after the first one, are controlled by the computer
+    private static final String COMPUTERS_PROPERTY = "labyrinth.computers";
+    //milliseconds that the computer players think about every decision
+    private static final String BUDGET_PROPERTY = "labyrinth.computerMillis";
 
     /**
      * @param args ignored
@@ -37,6 +55,7 @@ public final class Labyrinth {
             gameController.addView(gameView);
             final GameInputAdapter gameInput = new GameInputAdapter(gameController);
             gameView.routeKeyboardEvents(gameInput);
+            final ExecutorService strategies = createComputerPlayers(gameController);
 
             //setting up the main menu
             final MenuController menuController = new MenuController();
@@ -53,8 +72,10 @@ public final class Labyrinth {
             resultView.routeKeyboardEvents(resultInput);
 
             //setting up callbacks
+            final GamePreloader preloader = createPreloader();
+            menuController.onConfigChanged(preloader::preload);
             menuController.onPlay(config -> {
-                gameController.init(config);
+                gameController.init(preloader.take(config));
                 engine.changeExecutor(ID.GAME);
             });
 
@@ -68,6 +89,8 @@ public final class Labyrinth {
             });
 
             final Runnable onClose = () -> {
+                preloader.shutdown();
+                strategies.shutdownNow();
                 engine.stop();
                 Platform.exit();
             };
@@ -86,5 +109,35 @@ public final class Labyrinth {
         Application.launch(JFXStage.class);
     }
 
+    private static GamePreloader createPreloader() {
+        final String boards = System.getProperty(BOARDS_PROPERTY);
+        if (boards == null) {
+            return new GamePreloader();
+        }
+        try {
+            return new GamePreloader(BoardLibrary.open(Path.of(boards)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExecutorService createComputerPlayers(final GameController gameController) {
+        //the same threads run the decisions and the searches inside them, one computer player thinks at a time
+        final ForkJoinPool workers = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("computer-player-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        final int computers = Integer.getInteger(COMPUTERS_PROPERTY, 0);
+        final Duration budget = Duration.ofMillis(Long.getLong(BUDGET_PROPERTY,
+            ComputerPlayer.DEFAULT_BUDGET.toMillis()));
+        for (int player = 1; player <= computers; player++) {
+            gameController.setComputerPlayer(player,
+                new ComputerPlayer(new MctsStrategy(workers), budget, workers));
+        }
+        return workers;
+    }
+
     private Labyrinth() { }
 }
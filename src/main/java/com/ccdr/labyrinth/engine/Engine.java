@@ -1,62 +1,144 @@
 package com.ccdr.labyrinth.engine;
 
 import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
 import java.util.HashMap;
 
 /**
  * This class is responsible for managing and running the main game loop.
  * The {@link Executor} interface defines what kind of classes can be executed from the engine.
  * By design executors must be bounded to an Executor ID, and only one executor can be running.
+ * Between two frames the engine thread is parked instead of spinning, and only the last fraction
+ * of a millisecond before a deadline is spent busy waiting, to keep the frame timing precise.
+ * Optionally the engine can run a fixed simulation tick, independent from the render framerate.
  * @see Executor
  */
 public final class Engine {
     private static final double ONE_SECOND_IN_NANOS = 1e9;
+    //parkNanos can oversleep, so the last part of the wait is done spinning
+    private static final long SPIN_THRESHOLD_NANOS = 500_000;
+    //upper bound of simulation ticks executed in a row, so that a slow tick can't starve rendering
+    private static final int MAX_TICKS_PER_ITERATION = 5;
+    private static final double JITTER_SMOOTHING = 0.05;
 
     private final Map<Executor.ID, Executor> executors = new HashMap<>();
     private Executor.ID activeExecutor;
 
-    private final double framerate;
+    private final long framePeriod;
+    private final long tickPeriod;
     private volatile boolean running;
+    private volatile Thread runner;
+    private volatile double averageJitter;
+    private volatile double maxJitter;
 
     /**
      * @param requestedFramerate framerate that the engine should target
      */
     public Engine(final double requestedFramerate) {
-        this.framerate = requestedFramerate;
+        this(requestedFramerate, 0);
+    }
+
+    /**
+     * @param requestedFramerate framerate that the engine should target
+     * @param requestedTickrate how many times per second {@link Executor#fixedUpdate(double)} is called,
+     * 0 disables the fixed simulation tick
+     */
+    public Engine(final double requestedFramerate, final double requestedTickrate) {
+        if (requestedFramerate <= 0 || requestedTickrate < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.framePeriod = Math.round(ONE_SECOND_IN_NANOS / requestedFramerate);
+        this.tickPeriod = requestedTickrate > 0 ? Math.round(ONE_SECOND_IN_NANOS / requestedTickrate) : 0;
     }
 
     /**
      * Starts the engine. This function call blocks the caller.
      */
     public void start() {
+        this.runner = Thread.currentThread();
         this.running = true;
-        double lastTick = System.nanoTime();
-        double lastFrame = lastTick;
-        double timeElapsed = 0;
+        final boolean fixedTick = this.tickPeriod > 0;
+        long lastFrame = System.nanoTime();
+        long nextFrame = lastFrame + this.framePeriod;
+        long nextTick = lastFrame + this.tickPeriod;
         while (this.running) {
-            final double currentTick = System.nanoTime();
-            final double deltaTick = currentTick - lastTick;
-            timeElapsed += deltaTick;
+            this.waitUntil(fixedTick ? Math.min(nextFrame, nextTick) : nextFrame);
+            long currentTick = System.nanoTime();
 
-            if (timeElapsed > ONE_SECOND_IN_NANOS / framerate) {
-                final double newFrame = System.nanoTime();
-                final double deltaTimeInSeconds = (newFrame - lastFrame) / ONE_SECOND_IN_NANOS;
+            if (fixedTick) {
+                int ticks = 0;
+                while (this.running && currentTick >= nextTick && ticks < MAX_TICKS_PER_ITERATION) {
+                    this.executors.get(activeExecutor).fixedUpdate(this.tickPeriod / ONE_SECOND_IN_NANOS);
+                    nextTick += this.tickPeriod;
+                    ticks++;
+                }
+                currentTick = System.nanoTime();
+                //too far behind: drop the missed ticks instead of trying to catch up
+                if (currentTick - nextTick > this.tickPeriod * MAX_TICKS_PER_ITERATION) {
+                    nextTick = currentTick + this.tickPeriod;
+                }
+            }
+
+            if (this.running && currentTick >= nextFrame) {
+                final long frameTime = currentTick - lastFrame;
+                this.recordJitter(frameTime);
 
-                this.executors.get(activeExecutor).update(deltaTimeInSeconds);
+                this.executors.get(activeExecutor).update(frameTime / ONE_SECOND_IN_NANOS);
 
-                lastFrame = newFrame;
-                timeElapsed -= ONE_SECOND_IN_NANOS / framerate;
+                lastFrame = currentTick;
+                nextFrame += this.framePeriod;
+                if (nextFrame < currentTick) {
+                    nextFrame = currentTick + this.framePeriod;
+                }
             }
+        }
+        this.runner = null;
+    }
 
-            lastTick = currentTick;
+    private void waitUntil(final long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0 && this.running) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(this, remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
         }
     }
 
+    private void recordJitter(final long frameTime) {
+        final double jitter = Math.abs(frameTime - this.framePeriod) / ONE_SECOND_IN_NANOS;
+        final double average = this.averageJitter;
+        //only the engine thread writes these values, other threads just read them
+        this.averageJitter = average + (jitter - average) * JITTER_SMOOTHING;
+        this.maxJitter = Math.max(this.maxJitter, jitter);
+    }
+
     /**
      * Stops the engine.
      */
     public void stop() {
         this.running = false;
+        final Thread parked = this.runner;
+        if (parked != null) {
+            LockSupport.unpark(parked);
+        }
+    }
+
+    /**
+     * @return moving average of how much the frame time differs from the target one, measured in seconds.
+     */
+    public double getAverageJitter() {
+        return this.averageJitter;
+    }
+
+    /**
+     * @return biggest difference between a frame time and the target one since the engine was created,
+     * measured in seconds.
+     */
+    public double getMaxJitter() {
+        return this.maxJitter;
     }
 
     /**
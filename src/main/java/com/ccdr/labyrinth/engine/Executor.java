@@ -31,4 +31,10 @@ public interface Executor {
      * @param deltaTime time between frames, measured in seconds.
      */
     void update(double deltaTime);
+    /**
+     * This function is called at the fixed simulation rate of the engine, if one was requested.
+     * By default executors do all their work in {@link #update(double)}.
+     * @param tickDuration fixed time between two ticks, measured in seconds.
+     */
+    default void fixedUpdate(final double tickDuration) { }
 }
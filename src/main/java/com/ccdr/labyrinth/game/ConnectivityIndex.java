@@ -0,0 +1,241 @@
+package com.ccdr.labyrinth.game;
+
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * Groups the tiles of a board in components: two tiles are in the same component when a player
+ * can walk from one to the other, without shifting or rotating anything.
+ * Every cell keeps the label of its component, so both queries are a couple of array reads.
+ * The index is kept up to date by the {@link GameBoard} that owns it: when a row or a column is shifted,
+ * or a tile is rotated or replaced, only the components that touch the changed cells are dissolved
+ * and labelled again with a flood fill, the others keep their labels.
+ * The cost of an update is the size of those components, which is the whole board only when
+ * a component spreads over most of it.
+ * Tiles changed without going through the board (for example with {@link Tile#setPatternMask(int)})
+ * are not noticed.
+ */
+public final class ConnectivityIndex {
+    private static final int NONE = -1;
+    private final Board board;
+    private final int height, width;
+    private final int[] labels;
+    private final int[] sizes;
+    private final int[] freeLabels;
+    private int freeCount;
+    private int components;
+    //cells that have lost their label in the current update, and the queue shared by every visit
+    private final int[] dirty;
+    private int dirtyCount;
+    private final int[] queue;
+    //number of the update in which a cell has been queued, so that no cell is queued twice
+    private final int[] queuedIn;
+    private int update;
+
+    /**
+     * Labels every tile of the board.
+     * @param board the board to index, it must notify every change.
+     */
+    ConnectivityIndex(final Board board) {
+        this.board = board;
+        this.height = board.getHeight();
+        this.width = board.getWidth();
+        final int cells = this.height * this.width;
+        this.labels = new int[cells];
+        this.sizes = new int[cells];
+        this.freeLabels = new int[cells];
+        this.dirty = new int[cells];
+        this.queue = new int[cells];
+        this.queuedIn = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            this.labels[cell] = NONE;
+            //labels are taken from the end of the stack, so the first components get the smallest ones
+            this.freeLabels[cell] = cells - 1 - cell;
+            this.dirty[cell] = cell;
+        }
+        this.freeCount = cells;
+        this.dirtyCount = cells;
+        this.relabel();
+    }
+
+    /**
+     * @param first a cell of the board.
+     * @param second another cell of the board.
+     * @return true if a player can walk from the first cell to the second one.
+     */
+    public boolean connected(final Coordinate first, final Coordinate second) {
+        final int component = this.getComponent(first);
+        return component != NONE && component == this.getComponent(second);
+    }
+
+    /**
+     * @param cell a cell of the board.
+     * @return the label of the component of the cell, or -1 if the cell is outside the board or empty.
+     * Labels are only meaningful until the board changes.
+     */
+    public int getComponent(final Coordinate cell) {
+        return this.getComponent(cell.row(), cell.column());
+    }
+
+    /**
+     * @param row row of the cell.
+     * @param column column of the cell.
+     * @return the label of the component of the cell, or -1 if the cell is outside the board or empty.
+     */
+    public int getComponent(final int row, final int column) {
+        if (row < 0 || column < 0 || row >= this.height || column >= this.width) {
+            return NONE;
+        }
+        return this.labels[row * this.width + column];
+    }
+
+    /**
+     * @param component a label given by {@link #getComponent(Coordinate)}.
+     * @return the number of tiles in the component, 0 for the -1 of an empty cell or a cell outside the board.
+     */
+    public int getComponentSize(final int component) {
+        return component == NONE ? 0 : this.sizes[component];
+    }
+
+    /**
+     * @return the number of components on the board.
+     */
+    public int getComponentCount() {
+        return this.components;
+    }
+
+    /**
+     * The row and its neighbours are the only cells whose passages can have changed.
+     * @param row the shifted row.
+     */
+    void rowChanged(final int row) {
+        for (int r = row - 1; r <= row + 1; r++) {
+            for (int column = 0; column < this.width; column++) {
+                this.markChanged(r, column);
+            }
+        }
+        this.relabel();
+    }
+
+    /**
+     * @param column the shifted column.
+     */
+    void columnChanged(final int column) {
+        for (int row = 0; row < this.height; row++) {
+            for (int c = column - 1; c <= column + 1; c++) {
+                this.markChanged(row, c);
+            }
+        }
+        this.relabel();
+    }
+
+    /**
+     * @param row row of the rotated or replaced tile.
+     * @param column column of the rotated or replaced tile.
+     */
+    void cellChanged(final int row, final int column) {
+        this.markChanged(row, column);
+        for (int d = 0; d < Direction.COUNT; d++) {
+            final Direction direction = Direction.of(d);
+            this.markChanged(row + direction.rowStep(), column + direction.columnStep());
+        }
+        this.relabel();
+    }
+
+    /**
+     * Dissolves the component of a changed cell: every cell with its label loses it, following the label
+     * and not the passages, that may be gone. A changed cell without a label is queued anyway,
+     * it may have just received a tile.
+     */
+    private void markChanged(final int row, final int column) {
+        if (row < 0 || column < 0 || row >= this.height || column >= this.width) {
+            return;
+        }
+        final int start = row * this.width + column;
+        final int label = this.labels[start];
+        if (label == NONE) {
+            this.markDirty(start);
+            return;
+        }
+        this.labels[start] = NONE;
+        this.markDirty(start);
+        int tail = 0;
+        this.queue[tail++] = start;
+        for (int head = 0; head < tail; head++) {
+            final int cell = this.queue[head];
+            final int cellRow = cell / this.width;
+            final int cellColumn = cell % this.width;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                final int next = this.neighbour(cellRow, cellColumn, Direction.of(d));
+                if (next != NONE && this.labels[next] == label) {
+                    this.labels[next] = NONE;
+                    this.markDirty(next);
+                    this.queue[tail++] = next;
+                }
+            }
+        }
+        this.freeLabels[this.freeCount++] = label;
+        this.components--;
+    }
+
+    private void markDirty(final int cell) {
+        if (this.queuedIn[cell] != this.update) {
+            this.queuedIn[cell] = this.update;
+            this.dirty[this.dirtyCount++] = cell;
+        }
+    }
+
+    /**
+     * Gives a new label to the cells that have lost theirs, with a flood fill through the passages.
+     * The passages that leave the dissolved cells all lead to other dissolved cells: a passage to a labelled cell
+     * would have been there before the change too, and then its component would have been dissolved.
+     */
+    private void relabel() {
+        for (int i = 0; i < this.dirtyCount; i++) {
+            final int start = this.dirty[i];
+            if (this.labels[start] != NONE || this.tile(start) == null) {
+                continue;
+            }
+            final int label = this.freeLabels[--this.freeCount];
+            this.components++;
+            this.labels[start] = label;
+            int tail = 0;
+            this.queue[tail++] = start;
+            for (int head = 0; head < tail; head++) {
+                final int cell = this.queue[head];
+                final int cellRow = cell / this.width;
+                final int cellColumn = cell % this.width;
+                final Tile tile = this.board.getTile(cellRow, cellColumn);
+                for (int d = 0; d < Direction.COUNT; d++) {
+                    final Direction direction = Direction.of(d);
+                    final int next = this.neighbour(cellRow, cellColumn, direction);
+                    if (next != NONE && this.labels[next] == NONE && tile.isOpen(direction)) {
+                        final Tile nextTile = this.tile(next);
+                        if (nextTile != null && nextTile.isOpen(direction.opposite())) {
+                            this.labels[next] = label;
+                            this.queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+            this.sizes[label] = tail;
+        }
+        this.dirtyCount = 0;
+        this.update++;
+    }
+
+    private int neighbour(final int row, final int column, final Direction direction) {
+        final int nextRow = row + direction.rowStep();
+        final int nextColumn = column + direction.columnStep();
+        if (nextRow < 0 || nextColumn < 0 || nextRow >= this.height || nextColumn >= this.width) {
+            return NONE;
+        }
+        return nextRow * this.width + nextColumn;
+    }
+
+    private Tile tile(final int cell) {
+        return this.board.getTile(cell / this.width, cell % this.width);
+    }
+}
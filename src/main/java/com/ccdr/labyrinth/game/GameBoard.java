@@ -1,24 +1,79 @@
 package com.ccdr.labyrinth.game;
 
-import java.util.Map;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.function.BiFunction;
 
 import com.ccdr.labyrinth.game.tiles.Board;
 import com.ccdr.labyrinth.game.tiles.Tile;
 import com.ccdr.labyrinth.game.util.Coordinate;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
 /**
  * A class that implements the interface Board, and represents the implementation of a board.
+ * Tiles are stored in a flat row-major array, so every lookup is a plain array access;
+ * the map returned by {@link #getMap()} is a read-only view over the same array.
+ * The {@link ConnectivityIndex} and the {@link ZobristHash} are built the first time they are requested,
+ * and from then on every shift, rotation and insertion updates them.
  */
 public final class GameBoard implements Board {
-    private final Map<Coordinate, Tile> map = new HashMap<>();
+    private static final Tile[] EMPTY = new Tile[0];
     private final Set<Integer> blockedRows = new HashSet<>();
     private final Set<Integer> blockedColumns = new HashSet<>();
+    private final Map<Coordinate, Tile> view = new TileMapView();
+    private Tile[] tiles = EMPTY;
+    private int rows, columns;
+    private int tileCount;
     private int height, width;
+    private ConnectivityIndex connectivity;
+    private ZobristHash zobrist;
+
+    /**
+     * Creates an empty board, the tile storage grows as tiles get inserted.
+     */
+    public GameBoard() {
+    }
+
+    /**
+     * Creates an empty board with the tile storage already allocated for the given size.
+     * @param height the height of the labyrinth.
+     * @param width the width of the labyrinth.
+     */
+    public GameBoard(final int height, final int width) {
+        this.height = height;
+        this.width = width;
+        this.ensureCapacity(height, width);
+    }
+
+    /**
+     * @return the components of the board, kept up to date from now on.
+     * SuppressFBWarnings because the index is read only from outside, the board is the only one that updates it.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public ConnectivityIndex getConnectivity() {
+        if (this.connectivity == null) {
+            this.connectivity = new ConnectivityIndex(this);
+        }
+        return this.connectivity;
+    }
+
+    /**
+     * @return the hash of the tiles of the board, kept up to date from now on.
+     * SuppressFBWarnings since the hash can only be read by others, and only this board changes it.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public ZobristHash getZobristHash() {
+        if (this.zobrist == null) {
+            this.zobrist = new ZobristHash(this);
+        }
+        return this.zobrist;
+    }
 
     @Override
     public int getHeight() {
@@ -28,6 +83,9 @@ public final class GameBoard implements Board {
     @Override
     public void setHeight(final int height) {
         this.height = height;
+        this.ensureCapacity(height, this.columns);
+        this.connectivity = null;
+        this.zobrist = null;
     }
 
     @Override
@@ -38,11 +96,27 @@ public final class GameBoard implements Board {
     @Override
     public void setWidth(final int width) {
         this.width = width;
+        this.ensureCapacity(this.rows, width);
+        this.connectivity = null;
+        this.zobrist = null;
     }
 
     @Override
     public Map<Coordinate, Tile> getMap() {
-        return Collections.unmodifiableMap(this.map);
+        return this.view;
+    }
+
+    @Override
+    public Tile getTile(final int row, final int column) {
+        if (row < 0 || column < 0 || row >= this.rows || column >= this.columns) {
+            return null;
+        }
+        return this.tiles[row * this.columns + column];
+    }
+
+    @Override
+    public Tile getTile(final Coordinate coordinate) {
+        return this.getTile(coordinate.row(), coordinate.column());
     }
 
     @Override
@@ -63,77 +137,117 @@ public final class GameBoard implements Board {
 
     @Override
     public void insertTile(final Coordinate coordinate, final Tile tile) {
-        map.put(coordinate, tile);
+        if (coordinate.row() < 0 || coordinate.column() < 0) {
+            throw new IndexOutOfBoundsException(coordinate.toString());
+        }
+        this.ensureCapacity(coordinate.row() + 1, coordinate.column() + 1);
+        final int index = coordinate.row() * this.columns + coordinate.column();
+        if (this.tiles[index] == null && tile != null) {
+            this.tileCount++;
+        } else if (this.tiles[index] != null && tile == null) {
+            this.tileCount--;
+        }
+        this.tiles[index] = tile;
+        if (this.connectivity != null) {
+            this.connectivity.cellChanged(coordinate.row(), coordinate.column());
+        }
+        this.tileChanged(coordinate);
     }
 
-    private int getNext(final int actual, final int size) {
-        if (actual >= size) {
-             return 0;
-        } else {
-             return actual + 1;
+    @Override
+    public void tileChanged(final Coordinate coordinate) {
+        if (this.zobrist != null) {
+            this.zobrist.cellChanged(coordinate.row(), coordinate.column());
         }
     }
 
-    private int getPrev(final int actual, final int size) {
-        if (actual <= 0) {
-             return size;
-        } else {
-             return actual - 1;
+    /**
+     * Grows the tile storage so that it can hold at least the given number of rows and columns.
+     * Already inserted tiles keep their coordinates.
+     */
+    private void ensureCapacity(final int minRows, final int minColumns) {
+        if (minRows <= this.rows && minColumns <= this.columns) {
+            return;
         }
+        final int newRows = Math.max(minRows, this.rows);
+        final int newColumns = Math.max(minColumns, this.columns);
+        final Tile[] grown = new Tile[newRows * newColumns];
+        for (int row = 0; row < this.rows; row++) {
+            System.arraycopy(this.tiles, row * this.columns, grown, row * newColumns, this.columns);
+        }
+        this.tiles = grown;
+        this.rows = newRows;
+        this.columns = newColumns;
     }
 
     @Override
     public void shiftRow(final int row, final boolean forward) {
-        final BiFunction<Integer, Integer, Integer> operation;
-        final Map<Coordinate, Tile> shifted = new HashMap<>();
-        Coordinate pointer, shiftedPointer;
-        int index;
-        if (forward) {
-            operation = (i, size) -> getNext(i, size);
-        } else {
-            operation = (i, size) -> getPrev(i, size);
-        }
-        for (index = 0; index < this.width; index++) {
-            pointer = new Coordinate(row, index);
-            shiftedPointer = new Coordinate(row, operation.apply(index, this.width - 1));
-            shifted.put(shiftedPointer, this.map.get(pointer));
-        }
-        for (index = 0; index < this.width; index++) {
-            pointer = new Coordinate(row, index);
-            this.map.replace(pointer, shifted.get(pointer));
+        if (row >= 0 && row < this.rows) {
+            this.rotateLine(row * this.columns, 1, this.width, forward);
+            if (this.connectivity != null) {
+                this.connectivity.rowChanged(row);
+            }
+            if (this.zobrist != null) {
+                this.zobrist.rowChanged(row);
+            }
         }
     }
 
     @Override
     public void shiftColumn(final int column, final boolean forward) {
-        final BiFunction<Integer, Integer, Integer> operation;
-        final Map<Coordinate, Tile> shifted = new HashMap<>();
-        Coordinate pointer, shiftedPointer;
-        int index;
-        if (forward) {
-            operation = (i, size) -> getNext(i, size);
-        } else {
-            operation = (i, size) -> getPrev(i, size);
+        if (column >= 0 && column < this.columns) {
+            this.rotateLine(column, this.columns, this.height, forward);
+            if (this.connectivity != null) {
+                this.connectivity.columnChanged(column);
+            }
+            if (this.zobrist != null) {
+                this.zobrist.columnChanged(column);
+            }
         }
-        for (index = 0; index < this.height; index++) {
-            pointer = new Coordinate(index, column);
-            shiftedPointer = new Coordinate(operation.apply(index, this.height - 1), column);
-            shifted.put(shiftedPointer, this.map.get(pointer));
+    }
+
+    /**
+     * Rotates by one position, in place, the line of cells start, start + stride, ..., start + (length - 1) * stride.
+     * Rows use a stride of one and columns a stride equal to the row length, so both shifts share this code
+     * and only need a single temporary reference.
+     * @param start index of the first cell of the line.
+     * @param stride distance between two consecutive cells of the line.
+     * @param length number of cells in the line.
+     * @param forward if true the last cell wraps around to the first position, otherwise the first cell wraps to the last.
+     */
+    private void rotateLine(final int start, final int stride, final int length, final boolean forward) {
+        if (length < 2) {
+            return;
         }
-        for (index = 0; index < this.height; index++) {
-            pointer = new Coordinate(index, column);
-            this.map.replace(pointer, shifted.get(pointer));
+        final int last = start + (length - 1) * stride;
+        final Tile carried;
+        if (forward) {
+            carried = this.tiles[last];
+            for (int index = last; index > start; index -= stride) {
+                this.tiles[index] = this.tiles[index - stride];
+            }
+            this.tiles[start] = carried;
+        } else {
+            carried = this.tiles[start];
+            for (int index = start; index < last; index += stride) {
+                this.tiles[index] = this.tiles[index + stride];
+            }
+            this.tiles[last] = carried;
         }
     }
 
     @Override
     public void discoverNearBy(final Coordinate playerLocation, final int radius) {
-        Coordinate target;
-        for (int x = playerLocation.column() - radius; x <= playerLocation.column() + radius; x++) {
-            for (int y = playerLocation.row() - radius; y <= playerLocation.row() + radius; y++) {
-                target = new Coordinate(y, x);
-                if (map.containsKey(target) && !map.get(target).isDiscovered()) {
-                    map.get(target).discover();
+        final int minRow = Math.max(0, playerLocation.row() - radius);
+        final int maxRow = Math.min(this.rows - 1, playerLocation.row() + radius);
+        final int minColumn = Math.max(0, playerLocation.column() - radius);
+        final int maxColumn = Math.min(this.columns - 1, playerLocation.column() + radius);
+        Tile target;
+        for (int y = minRow; y <= maxRow; y++) {
+            for (int x = minColumn; x <= maxColumn; x++) {
+                target = this.tiles[y * this.columns + x];
+                if (target != null && !target.isDiscovered()) {
+                    target.discover();
                 }
             }
         }
@@ -141,11 +255,85 @@ public final class GameBoard implements Board {
 
     @Override
     public void rotateClockWiseTile(final Coordinate actual) {
-        this.map.get(actual).rotate(true);
+        this.getTile(actual).rotate(true);
+        if (this.connectivity != null) {
+            this.connectivity.cellChanged(actual.row(), actual.column());
+        }
+        this.tileChanged(actual);
     }
 
     @Override
     public void rotateCounterClockWiseTile(final Coordinate actual) {
-        this.map.get(actual).rotate(false);
+        this.getTile(actual).rotate(false);
+        if (this.connectivity != null) {
+            this.connectivity.cellChanged(actual.row(), actual.column());
+        }
+        this.tileChanged(actual);
+    }
+
+    /**
+     * Read-only map view over the tile array, used by callers that still work with coordinates.
+     * Iteration follows the row-major order of the array and skips empty cells.
+     */
+    private final class TileMapView extends AbstractMap<Coordinate, Tile> {
+        private final Set<Map.Entry<Coordinate, Tile>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Coordinate, Tile>> iterator() {
+                return new Iterator<>() {
+                    private int next = this.advance(0);
+
+                    private int advance(final int from) {
+                        int index = from;
+                        while (index < tiles.length && tiles[index] == null) {
+                            index++;
+                        }
+                        return index;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < tiles.length;
+                    }
+
+                    @Override
+                    public Map.Entry<Coordinate, Tile> next() {
+                        if (!this.hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final int index = this.next;
+                        this.next = this.advance(index + 1);
+                        return Map.entry(new Coordinate(index / columns, index % columns), tiles[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tileCount;
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<Coordinate, Tile>> entrySet() {
+            return this.entries;
+        }
+
+        @Override
+        public Tile get(final Object key) {
+            if (key instanceof Coordinate) {
+                return getTile((Coordinate) key);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return this.get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return tileCount;
+        }
     }
 }
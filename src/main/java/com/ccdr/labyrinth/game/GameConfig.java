@@ -1,6 +1,8 @@
 package com.ccdr.labyrinth.game;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class is used to contain all the configuration necessary to create a game.
@@ -39,6 +41,25 @@ public final class GameConfig {
     private int labyrinthWidth = DEFAULT_LABYRINTH_SIZE;
     // change to percentage of source based on labyrinth dimensions
     private int sourceTiles = DEFAULT_SOURCE_TILE_COUNT;
+    //every new config plays a different game, unless a seed is chosen
+    private long seed = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * Creates a config with the default values and a random seed.
+     */
+    public GameConfig() {
+    }
+
+    /**
+     * @param other config to copy
+     */
+    public GameConfig(final GameConfig other) {
+        this.playerCount = other.playerCount;
+        this.labyrinthHeight = other.labyrinthHeight;
+        this.labyrinthWidth = other.labyrinthWidth;
+        this.sourceTiles = other.sourceTiles;
+        this.seed = other.seed;
+    }
 
     //Getters
 
@@ -70,6 +91,13 @@ public final class GameConfig {
         return playerCount;
     }
 
+    /**
+     * @return seed that generates the missions, the labyrinth and the dice rolls of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * @param labyrinthWidth new width of the labyrinth
      */
@@ -98,4 +126,32 @@ public final class GameConfig {
         this.playerCount = playerCount;
     }
 
+    /**
+     * @param seed new seed of the game, two games with the same config and seed are generated equally
+     */
+    public void setSeed(final long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof GameConfig)) {
+            return false;
+        }
+        final GameConfig other = (GameConfig) obj;
+        return this.playerCount == other.playerCount
+            && this.labyrinthHeight == other.labyrinthHeight
+            && this.labyrinthWidth == other.labyrinthWidth
+            && this.sourceTiles == other.sourceTiles
+            && this.seed == other.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.playerCount, this.labyrinthHeight, this.labyrinthWidth, this.sourceTiles, this.seed);
+    }
+
 }
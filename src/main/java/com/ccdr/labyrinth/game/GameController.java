@@ -6,29 +6,43 @@ import com.ccdr.labyrinth.game.context.GuildContext;
 import com.ccdr.labyrinth.game.context.LabyrinthContext;
 import com.ccdr.labyrinth.game.context.PlayersContext;
 import com.ccdr.labyrinth.game.context.UpdateBoardContext;
-import com.ccdr.labyrinth.game.generator.BoardGenerator;
 import com.ccdr.labyrinth.game.player.Player;
-import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.simulation.InputSource;
 
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 /**
  * This is the main class responsible for managing everything related to the game.
+ * The game itself lives in a {@link GameSession}, this class connects it to the engine and the views.
+ * Inputs are queued and applied on the engine thread at the start of every frame, so the game state
+ * is only ever touched by one thread. The views receive an immutable snapshot of it.
+ * The game state only changes in response to inputs, so every input bumps the version counters of what it may
+ * have modified, and each frame only the screen regions whose versions changed are redrawn.
+ * Players can be controlled by the computer: during their turns the keyboard is ignored, and their
+ * {@link InputSource} gives one input per frame, it must never block since it runs on the engine thread.
  */
 public final class GameController implements Executor, GameInputs {
     private final Set<GameView> views = new HashSet<>();
-    private Board board;
     private Consumer<List<Player>> gameover;
-    //Contexts
-    private Context activeContext;
-    private PlayersContext playerManager;
-    private GuildContext guildContext;
+    private GameSession session;
+    private final Queue<Runnable> pendingInputs = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, InputSource> computers = new ConcurrentHashMap<>();
+    //Change tracking
+    private int boardVersion, playersVersion, guildVersion, contextVersion;
+    private volatile boolean redrawAll;
+    private int drawnBoard, drawnPlayers, drawnGuild, drawnContext;
 
     @Override
     public void onEnable() {
+        this.redrawAll = true;
         for (final GameView gameView : views) {
             gameView.onEnable();
         }
@@ -38,43 +52,74 @@ public final class GameController implements Executor, GameInputs {
      * @param config config object containing the parameters to initialize the game
      */
     public void init(final GameConfig config) {
-        this.guildContext = new GuildContext(config.getPlayerCountOptions());
-        board = new BoardGenerator(
-            config.getLabyrinthHeight(),
-            config.getLabyrinthWidth(),
-            config.getSourceTiles(),
-            config.getPlayerCountOptions(),
-            guildContext.getMaterialPresents()
-        ).generate(guildContext.getMissions().getMaxPoints());
-        board.setHeight(config.getLabyrinthHeight());
-        board.setWidth(config.getLabyrinthWidth());
-        //set up contexts
-        final UpdateBoardContext updateBoardContext = new UpdateBoardContext(this.board);
-        this.playerManager = new PlayersContext(config.getPlayerCountOptions(), this.board,
-        updateBoardContext, this.guildContext);
-        final LabyrinthContext labyrinthContext = new LabyrinthContext(this.board, this.playerManager);
-
-        this.guildContext.setPlayerManager(this.playerManager);
-        this.guildContext.setNextContext(updateBoardContext);
-        updateBoardContext.setNextContext(labyrinthContext);
-        updateBoardContext.setPlayerManager(this.playerManager);
-        this.activeContext = updateBoardContext;
+        this.init(new GameSession(config));
+    }
+
+    /**
+     * @param session an already generated game, for example one prepared by a {@link GamePreloader}
+     */
+    public void init(final GameSession session) {
+        this.session = session;
+        this.pendingInputs.clear();
+        this.redrawAll = true;
     }
 
     @Override
     public void update(final double deltaTimeInSeconds) {
         //game loop
+        Runnable input = this.pendingInputs.poll();
+        while (input != null) {
+            input.run();
+            input = this.pendingInputs.poll();
+        }
+        final InputSource computer = this.computers.get(this.turnPlayer());
+        if (computer != null && !this.session.isOver()) {
+            final Context handled = this.session.getActiveContext();
+            final int before = this.session.getInputCount();
+            computer.next(this.session);
+            if (this.session.getInputCount() != before) {
+                this.trackChanges(handled);
+            }
+        }
+        final Set<GameView.Region> dirty = this.collectDirtyRegions();
+        if (!dirty.isEmpty()) {
+            final GameSnapshot frame = GameSnapshot.capture(dirty, this.session.getBoard(),
+                this.session.getPlayersContext(), this.session.getGuildContext(), this.session.getActiveContext());
+            for (final GameView gameView : views) {
+                gameView.draw(frame);
+            }
+        }
+        if (this.session.isOver()) {
+            this.gameOver();
+        }
+    }
+
+    private Set<GameView.Region> collectDirtyRegions() {
+        boolean all = this.redrawAll;
+        this.redrawAll = false;
         for (final GameView gameView : views) {
-            gameView.clear();
-            gameView.drawGuildinfo(guildContext.getListOfMissions(), guildContext.getMissionCompl());
-            gameView.drawBoard(this.board);
-            gameView.drawPlayersOnBoard(this.playerManager.getPlayers());
-            gameView.drawPlayersStats(this.playerManager, guildContext.getMaterialPresents());
-            gameView.drawContext(this.activeContext);
+            //every view must be asked, so that all of them reset their condition
+            all = gameView.invalidated() || all;
         }
-        if (this.guildContext.getListOfMissions().isEmpty()) {
-            forceGameOver();
+        final int boardNow = this.boardVersion;
+        final int playersNow = this.playersVersion;
+        final int guildNow = this.guildVersion;
+        final int contextNow = this.contextVersion;
+        final Set<GameView.Region> dirty = EnumSet.noneOf(GameView.Region.class);
+        if (all || guildNow != this.drawnGuild) {
+            dirty.add(GameView.Region.MISSIONS);
         }
+        if (all || boardNow != this.drawnBoard || playersNow != this.drawnPlayers || contextNow != this.drawnContext) {
+            dirty.add(GameView.Region.BOARD);
+        }
+        if (all || playersNow != this.drawnPlayers) {
+            dirty.add(GameView.Region.STATS);
+        }
+        this.drawnBoard = boardNow;
+        this.drawnPlayers = playersNow;
+        this.drawnGuild = guildNow;
+        this.drawnContext = contextNow;
+        return dirty;
     }
 
     /**
@@ -84,6 +129,25 @@ public final class GameController implements Executor, GameInputs {
         this.views.add(view);
     }
 
+    /**
+     * Gives a player to the computer, for this game and the following ones.
+     * @param player index of the player, in turn order
+     * @param source plays the turns of the player, for example a {@link com.ccdr.labyrinth.game.ai.ComputerPlayer}
+     */
+    public void setComputerPlayer(final int player, final InputSource source) {
+        this.computers.put(player, source);
+    }
+
+    /**
+     * @return the index of the player who is playing, or whose turn is announced by the popup
+     */
+    private int turnPlayer() {
+        final Context active = this.session.getActiveContext();
+        return active instanceof UpdateBoardContext
+            ? ((UpdateBoardContext) active).getVisualPlayerIndex()
+            : this.session.getPlayersContext().getActivePlayerIndex();
+    }
+
     /**
      * @param action Runnable to execute once the game is over
      */
@@ -92,15 +156,14 @@ public final class GameController implements Executor, GameInputs {
     }
 
     //input methods
-    //note: this method gets called from the javafx application thread
+    //note: these methods get called from the javafx application thread, so they only queue the action
 
     /**
      * method that calls the activeContext method to execute when the W or up arrow key is pressed.
      */
     @Override
     public void up() {
-        this.activeContext.up();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::up);
     }
 
     /**
@@ -108,8 +171,7 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void down() {
-        this.activeContext.down();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::down);
     }
 
     /**
@@ -117,8 +179,7 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void left() {
-        this.activeContext.left();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::left);
     }
 
     /**
@@ -126,8 +187,7 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void right() {
-        this.activeContext.right();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::right);
     }
 
     /**
@@ -135,8 +195,7 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void primary() {
-        this.activeContext.primary();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::primary);
     }
 
     /**
@@ -144,8 +203,7 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void secondary() {
-        this.activeContext.secondary();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::secondary);
     }
 
     /**
@@ -153,24 +211,49 @@ public final class GameController implements Executor, GameInputs {
      */
     @Override
     public void back() {
-        this.activeContext.back();
-        switchContextIfNecessary();
+        this.queueInput(GameSession::back);
+    }
+
+    private void queueInput(final Consumer<GameSession> input) {
+        this.pendingInputs.add(() -> {
+            if (this.computers.containsKey(this.turnPlayer())) {
+                return;
+            }
+            final Context handled = this.session.getActiveContext();
+            input.accept(this.session);
+            this.trackChanges(handled);
+        });
     }
 
     /**
-     * method that checks if the activeContext should be changed.
-     * This method is checked when the player presses a key used by the game.
+     * Bumps the versions of everything that the context that just handled an input is able to modify.
+     * @param handled the context that received the input
      */
-    private void switchContextIfNecessary() {
-        if (this.activeContext.done()) {
-            this.activeContext = this.activeContext.getNextContext();
+    private void trackChanges(final Context handled) {
+        this.contextVersion++;
+        if (handled instanceof LabyrinthContext || handled instanceof PlayersContext
+            || handled instanceof UpdateBoardContext) {
+            this.boardVersion++;
+        }
+        if (handled instanceof PlayersContext || handled instanceof UpdateBoardContext
+            || handled instanceof GuildContext) {
+            this.playersVersion++;
+        }
+        //the guild menu cursor is drawn inside the missions region
+        if (handled instanceof GuildContext || this.session.getActiveContext() instanceof GuildContext) {
+            this.guildVersion++;
         }
     }
 
     @Override
     public void forceGameOver() {
+        //the game can be left during the turns of the computer too
+        this.pendingInputs.add(() -> this.session.forceGameOver());
+    }
+
+    private void gameOver() {
         if (this.gameover != null) {
-            this.gameover.accept(this.playerManager.getPlayers());
+            this.gameover.accept(this.session.getPlayersContext().getPlayers());
         }
     }
 }
@@ -1,23 +1,14 @@
 package com.ccdr.labyrinth.game;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.ccdr.labyrinth.ImageLoader;
-import com.ccdr.labyrinth.game.context.Context;
-import com.ccdr.labyrinth.game.context.GuildContext;
-import com.ccdr.labyrinth.game.context.LabyrinthContext;
-import com.ccdr.labyrinth.game.context.PlayersContext;
-import com.ccdr.labyrinth.game.context.UpdateBoardContext;
-import com.ccdr.labyrinth.game.context.PlayersContext.Subphase;
-import com.ccdr.labyrinth.game.player.Player;
-import com.ccdr.labyrinth.game.tiles.Board;
-import com.ccdr.labyrinth.game.tiles.GuildTile;
-import com.ccdr.labyrinth.game.tiles.SourceTile;
-import com.ccdr.labyrinth.game.tiles.StandardTile;
-import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.GameSnapshot.PlayerState;
+import com.ccdr.labyrinth.game.GameSnapshot.TileKind;
 import com.ccdr.labyrinth.game.util.Category;
 import com.ccdr.labyrinth.game.util.Coordinate;
-import com.ccdr.labyrinth.game.util.Direction;
 import com.ccdr.labyrinth.game.util.Item;
 import com.ccdr.labyrinth.game.util.Material;
 import com.ccdr.labyrinth.jfx.JFXExpandCanvas;
@@ -36,6 +27,8 @@ import javafx.scene.text.TextAlignment;
 
 /**
  * Main implementation of the GameView interface, done using JavaFX.
+ * Snapshots are rendered by a single task on the JavaFX thread: if the engine produces a new one
+ * before the previous has been drawn, the old one is dropped and only its dirty regions are kept.
  */
 public final class GameJFXView implements GameView, JFXInputSource {
 
@@ -66,15 +59,15 @@ public final class GameJFXView implements GameView, JFXInputSource {
 
 
     //Images
-    private static final Image WALL = ImageLoader.WALL.getImage();
-    private static final Image PATH_CENTER = ImageLoader.PATH.getImage();
-    private static final Image PATH_VERTICAL = ImageLoader.PATH.getImage();
-    private static final Image PATH_HORIZONTAL = ImageLoader.PATH.getImage();
-    private static final Image PATH_GUILD = ImageLoader.GUILD.getImage();
     private static final Color BASE_COLOR = Color.gray(0.3);
 
     private final Scene scene;
     private final JFXExpandCanvas canvas;
+    private final TileSpriteCache tileSprites = new TileSpriteCache(this::materialToImage);
+    //set from the JavaFX thread when the canvas changes size, read from the engine thread
+    private final AtomicBoolean resized = new AtomicBoolean(true);
+    //latest snapshot not drawn yet, null when no render task is scheduled
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
     private double i = 10;
     //Variable used for resizing header elements
     private double headerFontSize;
@@ -87,6 +80,8 @@ public final class GameJFXView implements GameView, JFXInputSource {
         this.canvas = new JFXExpandCanvas();
         this.scene = new Scene(new Group(this.canvas), BASE_COLOR);
         this.canvas.bind(this.scene);
+        this.canvas.widthProperty().addListener((observable, oldVal, newVal) -> this.resized.set(true));
+        this.canvas.heightProperty().addListener((observable, oldVal, newVal) -> this.resized.set(true));
     }
 
     @Override
@@ -100,307 +95,269 @@ public final class GameJFXView implements GameView, JFXInputSource {
     }
 
     @Override
-    public void clear() {
-        Platform.runLater(() -> {
-            final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
-            //Maybe change this to fillRect(black);
-            context2d.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
-            //eh, this is not the best place to put it
-            recalculateLayout();
-        });
-    }
-
-    @Override
-    public void drawBoard(final Board board) {
-        Platform.runLater(() -> {
-            final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
-            context2d.save();
-            context2d.setFill(Color.BLACK);
-            context2d.fillRect(labyrinthTopLeftX, labyrinthTopLeftY, labyrinthSize, labyrinthSize);
-
-            this.tileWidth = labyrinthSize / board.getWidth();
-            this.tileHeight = labyrinthSize / board.getHeight();
-
-            context2d.setFill(Color.GRAY);
-            for (final var entry : board.getMap().entrySet()) {
-                final Coordinate c = entry.getKey();
-                final Tile tile = entry.getValue();
-                if (tile.isDiscovered()) {
-                    drawTile(context2d, c, tile);
-                }
-            }
-            context2d.restore();
-        });
+    public void draw(final GameSnapshot frame) {
+        final GameSnapshot previous = this.pending.getAndAccumulate(frame,
+            (skipped, latest) -> skipped == null ? latest : latest.mergeDirty(skipped));
+        //a task is already scheduled and will pick up the new snapshot
+        if (previous == null) {
+            Platform.runLater(this::render);
+        }
     }
 
-    private void drawTile(final GraphicsContext context2d, final Coordinate c, final Tile tile) {
-        //reference points in the tile
-        final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
-        final double border = (tileWidth - tileMiddleSize) / 2;
-        final double rightSplit = border + tileMiddleSize;
-        final double bottomSplit = border + tileMiddleSize;
-        final double x = labyrinthTopLeftX + c.column() * tileWidth;
-        final double y = labyrinthTopLeftY + c.row() * tileHeight;
-
-        //corners are always a wall
-        //top left
-        context2d.drawImage(WALL, x, y, border, border);
-        //top right
-        context2d.drawImage(WALL, x + rightSplit, y, border, border);
-        //bottom left
-        context2d.drawImage(WALL, x, y + bottomSplit, border, border);
-        //bottom right
-        context2d.drawImage(WALL, x + rightSplit, y + bottomSplit, border, border);
-        //center is always walkable
-        context2d.drawImage(PATH_CENTER, x + border, y + border, tileMiddleSize, tileMiddleSize);
-
-        //vertical paths
-        if (tile.isOpen(Direction.UP)) {
-            context2d.drawImage(PATH_VERTICAL, x + border, y, tileMiddleSize, border);
-        } else {
-            context2d.drawImage(WALL, x + border, y, tileMiddleSize, border);
+    private void render() {
+        final GameSnapshot frame = this.pending.getAndSet(null);
+        if (frame == null) {
+            return;
         }
-        if (tile.isOpen(Direction.DOWN)) {
-            context2d.drawImage(PATH_VERTICAL, x + border, y + bottomSplit, tileMiddleSize, border);
-        } else {
-            context2d.drawImage(WALL, x + border, y + bottomSplit, tileMiddleSize, border);
+        //eh, this is not the best place to put it
+        recalculateLayout();
+        final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
+        for (final Region region : frame.getDirtyRegions()) {
+            clear(context2d, region);
         }
-
-        //horizontal paths
-        if (tile.isOpen(Direction.LEFT)) {
-            context2d.drawImage(PATH_HORIZONTAL, x, y + border, border, tileMiddleSize);
-        } else {
-            context2d.drawImage(WALL, x, y + border, border, tileMiddleSize);
+        if (frame.getDirtyRegions().contains(Region.MISSIONS)) {
+            drawGuildinfo(frame.getMissions(), frame.getCompletedMissions());
         }
-        if (tile.isOpen(Direction.RIGHT)) {
-            context2d.drawImage(PATH_HORIZONTAL, x + rightSplit, y + border, border, tileMiddleSize);
-        } else {
-            context2d.drawImage(WALL, x + rightSplit, y + border, border, tileMiddleSize);
+        if (frame.getDirtyRegions().contains(Region.BOARD)) {
+            drawBoard(frame);
+            drawPlayersOnBoard(frame.getPlayers());
+        }
+        if (frame.getDirtyRegions().contains(Region.STATS)) {
+            drawPlayersStats(frame);
+        }
+        //popups can cover the other regions, so they go on top of everything
+        if (frame.getDirtyRegions().contains(Region.BOARD)) {
+            drawContext(frame);
         }
-
-        decorateTile(context2d, tile, x, y);
     }
 
-    //Used for those tiles that require additional graphics on top of the standard path rendering
-    private void decorateTile(final GraphicsContext context2d, final Tile tile, final double x, final double y) {
-        final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
-        final double border = (tileWidth - tileMiddleSize) / 2;
-        if (tile instanceof SourceTile) {
-            final SourceTile sourceTile = (SourceTile) tile;
-            if (sourceTile.isActive()) {
-                context2d.setStroke(Color.GREENYELLOW);
-            } else {
-                context2d.setStroke(Color.RED);
-            }
-            context2d.strokeOval(x + border, y + border, tileMiddleSize, tileMiddleSize);
-            //draw material inside
-            final Image material = materialToImage(sourceTile.getMaterialType());
-            if (material != null) {
-                context2d.drawImage(material, x + border, y + border, tileMiddleSize, tileMiddleSize);
-            }
-        } else if (tile instanceof GuildTile) {
-            //GuildTile guild = (GuildTile) tile;
-            context2d.drawImage(PATH_GUILD, x, y, tileWidth, tileHeight);
-        } else if (tile instanceof StandardTile) {
-            final StandardTile standard = (StandardTile) tile;
-            if (standard.getBonusMaterial().isPresent()) {
-                final Image material = materialToImage(standard.getBonusMaterial().get());
-                if (material != null) {
-                    context2d.drawImage(material, x + border, y + border, tileMiddleSize, tileMiddleSize);
-                }
-            }
+    private void clear(final GraphicsContext context2d, final Region region) {
+        final double height = this.canvas.getHeight();
+        //the regions are split at the edges of the labyrinth square
+        switch (region) {
+            case MISSIONS:
+                context2d.clearRect(0, 0, this.labyrinthTopLeftX, height);
+                break;
+            case BOARD:
+                context2d.clearRect(this.labyrinthTopLeftX, 0, this.labyrinthSize, height);
+                break;
+            case STATS:
+                context2d.clearRect(this.playerStatsRegionX, 0, this.canvas.getWidth() - this.playerStatsRegionX, height);
+                break;
+            default:
+                break;
         }
     }
 
     @Override
-    public void drawPlayersOnBoard(final List<Player> players) {
-        Platform.runLater(() -> {
-            final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
-            final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
-            final double border = (tileWidth - tileMiddleSize) / 2;
-            context2d.save();
-            for (int i = 0; i < players.size(); i++) {
-                if (i == 0) {
-                    //Player1
-                    final double playerY = players.get(i).getCoord().row() * this.tileHeight
-                    + this.labyrinthTopLeftY;
-                    final double playerX = players.get(i).getCoord().column() * this.tileWidth
-                    + this.labyrinthTopLeftX;
-                    context2d.setFill(Color.RED);
-                    context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
-                } else if (i == 1) {
-                    //Player2
-                    final double playerY = players.get(i).getCoord().row() * this.tileHeight
-                    + this.labyrinthTopLeftY;
-                    final double playerX = players.get(i).getCoord().column() * this.tileWidth
-                    + this.labyrinthTopLeftX;
-                    context2d.setFill(Color.BLUE);
-                    context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
-                } else if (i == 2) {
-                    //Player3
-                    final double playerY = players.get(i).getCoord().row() * this.tileHeight
-                    + this.labyrinthTopLeftY;
-                    final double playerX = players.get(i).getCoord().column() * this.tileWidth
-                    + this.labyrinthTopLeftX;
-                    context2d.setFill(Color.GREEN);
-                    context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
-                } else if (i == 3) {
-                    //Player4
-                    final double playerY = players.get(i).getCoord().row() * this.tileHeight
-                    + this.labyrinthTopLeftY;
-                    final double playerX = players.get(i).getCoord().column() * this.tileWidth
-                    + this.labyrinthTopLeftX;
-                    context2d.setFill(Color.YELLOW);
-                    context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
+    public boolean invalidated() {
+        return this.resized.getAndSet(false);
+    }
+
+    private void drawBoard(final GameSnapshot frame) {
+        final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
+        context2d.save();
+        context2d.setFill(Color.BLACK);
+        context2d.fillRect(labyrinthTopLeftX, labyrinthTopLeftY, labyrinthSize, labyrinthSize);
+
+        this.tileWidth = labyrinthSize / frame.getWidth();
+        this.tileHeight = labyrinthSize / frame.getHeight();
+
+        //every tile is a single copy of a cached sprite
+        this.tileSprites.resize(Math.max(this.tileWidth, this.tileHeight));
+        for (int row = 0; row < frame.getHeight(); row++) {
+            for (int column = 0; column < frame.getWidth(); column++) {
+                if (frame.getKind(row, column) != TileKind.EMPTY && frame.isDiscovered(row, column)) {
+                    final double x = labyrinthTopLeftX + column * tileWidth;
+                    final double y = labyrinthTopLeftY + row * tileHeight;
+                    context2d.drawImage(this.tileSprites.get(frame, row, column), x, y, tileWidth, tileHeight);
                 }
             }
-            context2d.restore();
-        });
+        }
+        context2d.restore();
     }
 
-    @Override
-    public void drawPlayersStats(final PlayersContext playersManager, final List<Material> materialPresent) {
-        Platform.runLater(() -> {
-            final var context2d = this.canvas.getGraphicsContext2D();
-            this.recalculateFontSizes();
-            final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
-            final double border = (tileWidth - tileMiddleSize) / 2 + 10;
+    private void drawPlayersOnBoard(final List<PlayerState> players) {
+        final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
+        final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
+        final double border = (tileWidth - tileMiddleSize) / 2;
+        context2d.save();
+        for (int i = 0; i < players.size(); i++) {
+            if (i == 0) {
+                //Player1
+                final double playerY = players.get(i).coord().row() * this.tileHeight
+                + this.labyrinthTopLeftY;
+                final double playerX = players.get(i).coord().column() * this.tileWidth
+                + this.labyrinthTopLeftX;
+                context2d.setFill(Color.RED);
+                context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
+            } else if (i == 1) {
+                //Player2
+                final double playerY = players.get(i).coord().row() * this.tileHeight
+                + this.labyrinthTopLeftY;
+                final double playerX = players.get(i).coord().column() * this.tileWidth
+                + this.labyrinthTopLeftX;
+                context2d.setFill(Color.BLUE);
+                context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
+            } else if (i == 2) {
+                //Player3
+                final double playerY = players.get(i).coord().row() * this.tileHeight
+                + this.labyrinthTopLeftY;
+                final double playerX = players.get(i).coord().column() * this.tileWidth
+                + this.labyrinthTopLeftX;
+                context2d.setFill(Color.GREEN);
+                context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
+            } else if (i == 3) {
+                //Player4
+                final double playerY = players.get(i).coord().row() * this.tileHeight
+                + this.labyrinthTopLeftY;
+                final double playerX = players.get(i).coord().column() * this.tileWidth
+                + this.labyrinthTopLeftX;
+                context2d.setFill(Color.YELLOW);
+                context2d.fillOval(playerX + border, playerY + border, tileMiddleSize, tileMiddleSize);
+            }
+        }
+        context2d.restore();
+    }
 
-            context2d.save();
-            context2d.setTextBaseline(VPos.TOP);
-            context2d.setFill(Color.BLACK);
-            context2d.setFont(Font.font(this.headerFontSize));
-            this.step = this.headerFontSize * 3 / 2;
-            context2d.setTextAlign(TextAlignment.CENTER);
-            final double headerPos = this.labyrinthTopLeftX + this.labyrinthSize;
-            context2d.fillText("Players Statistics",
-            headerPos + ((this.canvas.getWidth() - headerPos) / 2), 0);
-            context2d.setTextAlign(TextAlignment.LEFT);
-            context2d.setFont(Font.font(this.desFontSize));
-            this.step = this.desFontSize * 3 / 2;
-
-            for (int i = 0; i < playersManager.getPlayers().size(); i++) {
-                if (i == 0) {
-                    //Player1
-                    context2d.setFill(Color.RED);
-                    context2d.fillOval(this.playerStatsRegionX + border, border + step,
-                    this.desFontSize, this.desFontSize);
-                    if (i != playersManager.getActivePlayerIndex()) {
-                        context2d.setFill(Color.BLACK);
-                    }
-                    context2d.fillText("Player1", this.playerStatsRegionX + border + step, border + step);
+    private void drawPlayersStats(final GameSnapshot frame) {
+        final List<Material> materialPresent = frame.getMaterialPresent();
+        final var context2d = this.canvas.getGraphicsContext2D();
+        this.recalculateFontSizes();
+        final double tileMiddleSize = this.tileWidth * TILE_MIDDLE_WIDTH;
+        final double border = (tileWidth - tileMiddleSize) / 2 + 10;
+
+        context2d.save();
+        context2d.setTextBaseline(VPos.TOP);
+        context2d.setFill(Color.BLACK);
+        context2d.setFont(Font.font(this.headerFontSize));
+        this.step = this.headerFontSize * 3 / 2;
+        context2d.setTextAlign(TextAlignment.CENTER);
+        final double headerPos = this.labyrinthTopLeftX + this.labyrinthSize;
+        context2d.fillText("Players Statistics",
+        headerPos + ((this.canvas.getWidth() - headerPos) / 2), 0);
+        context2d.setTextAlign(TextAlignment.LEFT);
+        context2d.setFont(Font.font(this.desFontSize));
+        this.step = this.desFontSize * 3 / 2;
+
+        for (int i = 0; i < frame.getPlayers().size(); i++) {
+            if (i == 0) {
+                //Player1
+                context2d.setFill(Color.RED);
+                context2d.fillOval(this.playerStatsRegionX + border, border + step,
+                this.desFontSize, this.desFontSize);
+                if (i != frame.getActivePlayerIndex()) {
                     context2d.setFill(Color.BLACK);
-                    //draw the player's points
-                    context2d.fillText(POINTS_PREFIX + playersManager.getPlayers().get(i).getPoints(),
-                    this.playerStatsRegionX + border, border + step * 2);
-                    for (int j = 0; j < materialPresent.size(); j++) {
-                        final var material = materialPresent.get(j);
-                        context2d.fillText(material.name() + "  " + playersManager.getPlayers()
-                        .get(i).getQuantityMaterial(material),
-                        this.playerStatsRegionX + border, border + step * 3 + step * j);
-                    }
-                } else if (i == 1) {
-                    //Player2
-                    final double newStartPosY = border + step * 7;
-                    context2d.setFill(Color.BLUE);
-                    context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
-                    this.desFontSize, this.desFontSize);
-                    if (i != playersManager.getActivePlayerIndex()) {
-                        context2d.setFill(Color.BLACK);
-                    }
-                    context2d.fillText("Player2", this.playerStatsRegionX + border + step, newStartPosY);
+                }
+                context2d.fillText("Player1", this.playerStatsRegionX + border + step, border + step);
+                context2d.setFill(Color.BLACK);
+                //draw the player's points
+                context2d.fillText(POINTS_PREFIX + frame.getPlayers().get(i).points(),
+                this.playerStatsRegionX + border, border + step * 2);
+                for (int j = 0; j < materialPresent.size(); j++) {
+                    final var material = materialPresent.get(j);
+                    context2d.fillText(material.name() + "  " + frame.getPlayers()
+                    .get(i).inventory().get(material),
+                    this.playerStatsRegionX + border, border + step * 3 + step * j);
+                }
+            } else if (i == 1) {
+                //Player2
+                final double newStartPosY = border + step * 7;
+                context2d.setFill(Color.BLUE);
+                context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
+                this.desFontSize, this.desFontSize);
+                if (i != frame.getActivePlayerIndex()) {
                     context2d.setFill(Color.BLACK);
-                    //draw the player's points
-                    context2d.fillText(POINTS_PREFIX + playersManager.getPlayers().get(i).getPoints(),
-                    this.playerStatsRegionX + border, newStartPosY + step);
-                    for (int j = 0; j < materialPresent.size(); j++) {
-                        final var material = materialPresent.get(j);
-                        context2d.fillText(material.name() + "  " + playersManager.getPlayers()
-                        .get(i).getQuantityMaterial(material),
-                        this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
-                    }
-                } else if (i == 2) {
-                    //Player3
-                    final double newStartPosY = border + step * 13;
-                    context2d.setFill(Color.GREEN);
-                    context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
-                    this.desFontSize, this.desFontSize);
-                    if (i != playersManager.getActivePlayerIndex()) {
-                        context2d.setFill(Color.BLACK);
-                    }
-                    context2d.fillText("Player3", this.playerStatsRegionX + border + step, newStartPosY);
+                }
+                context2d.fillText("Player2", this.playerStatsRegionX + border + step, newStartPosY);
+                context2d.setFill(Color.BLACK);
+                //draw the player's points
+                context2d.fillText(POINTS_PREFIX + frame.getPlayers().get(i).points(),
+                this.playerStatsRegionX + border, newStartPosY + step);
+                for (int j = 0; j < materialPresent.size(); j++) {
+                    final var material = materialPresent.get(j);
+                    context2d.fillText(material.name() + "  " + frame.getPlayers()
+                    .get(i).inventory().get(material),
+                    this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
+                }
+            } else if (i == 2) {
+                //Player3
+                final double newStartPosY = border + step * 13;
+                context2d.setFill(Color.GREEN);
+                context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
+                this.desFontSize, this.desFontSize);
+                if (i != frame.getActivePlayerIndex()) {
                     context2d.setFill(Color.BLACK);
-                    //draw the player's points
-                    context2d.fillText(POINTS_PREFIX + playersManager.getPlayers().get(i).getPoints(),
-                    this.playerStatsRegionX + border, newStartPosY + step);
-                    for (int j = 0; j < materialPresent.size(); j++) {
-                        final var material = materialPresent.get(j);
-                        context2d.fillText(material.name() + "  " + playersManager.getPlayers()
-                        .get(i).getQuantityMaterial(material),
-                        this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
-                    }
-                } else if (i == 3) {
-                    //Player4
-                    final double newStartPosY = border + step * 19;
-                    context2d.setFill(Color.YELLOW);
-                    context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
-                    this.desFontSize, this.desFontSize);
-                    if (i != playersManager.getActivePlayerIndex()) {
-                        context2d.setFill(Color.BLACK);
-                    }
-                    context2d.fillText("Player4", this.playerStatsRegionX + border + step, newStartPosY);
+                }
+                context2d.fillText("Player3", this.playerStatsRegionX + border + step, newStartPosY);
+                context2d.setFill(Color.BLACK);
+                //draw the player's points
+                context2d.fillText(POINTS_PREFIX + frame.getPlayers().get(i).points(),
+                this.playerStatsRegionX + border, newStartPosY + step);
+                for (int j = 0; j < materialPresent.size(); j++) {
+                    final var material = materialPresent.get(j);
+                    context2d.fillText(material.name() + "  " + frame.getPlayers()
+                    .get(i).inventory().get(material),
+                    this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
+                }
+            } else if (i == 3) {
+                //Player4
+                final double newStartPosY = border + step * 19;
+                context2d.setFill(Color.YELLOW);
+                context2d.fillOval(this.playerStatsRegionX + border, newStartPosY,
+                this.desFontSize, this.desFontSize);
+                if (i != frame.getActivePlayerIndex()) {
                     context2d.setFill(Color.BLACK);
-                    //draw the player's points
-                    context2d.fillText(POINTS_PREFIX + playersManager.getPlayers().get(i).getPoints(),
-                    this.playerStatsRegionX + border, newStartPosY + step);
-                    for (int j = 0; j < materialPresent.size(); j++) {
-                        final var material = materialPresent.get(j);
-                        context2d.fillText(material.name() + "  " + playersManager.getPlayers()
-                        .get(i).getQuantityMaterial(material),
-                        this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
-                    }
+                }
+                context2d.fillText("Player4", this.playerStatsRegionX + border + step, newStartPosY);
+                context2d.setFill(Color.BLACK);
+                //draw the player's points
+                context2d.fillText(POINTS_PREFIX + frame.getPlayers().get(i).points(),
+                this.playerStatsRegionX + border, newStartPosY + step);
+                for (int j = 0; j < materialPresent.size(); j++) {
+                    final var material = materialPresent.get(j);
+                    context2d.fillText(material.name() + "  " + frame.getPlayers()
+                    .get(i).inventory().get(material),
+                    this.playerStatsRegionX + border, newStartPosY + step * 2 + step * j);
                 }
             }
+        }
 
-            //Mostro il diceVal
-            final double newStartPosY = this.canvas.getHeight() - step;
-            context2d.fillText("Moves remaining: " + playersManager.getDiceValue(),
-            this.playerStatsRegionX + border, newStartPosY);
-            context2d.setFont(Font.getDefault());
-            context2d.restore();
-        });
+        //Mostro il diceVal
+        final double newStartPosY = this.canvas.getHeight() - step;
+        context2d.fillText("Moves remaining: " + frame.getDiceValue(),
+        this.playerStatsRegionX + border, newStartPosY);
+        context2d.setFont(Font.getDefault());
+        context2d.restore();
     }
     /**
      * Draw the info of guild: missions, legends and missions completed.
      *  @param missions
      *  @param missionsCompleted
      */
-    @Override
-    public void drawGuildinfo(final List<Item> missions, final List<Item> missionsCompleted) {
+    private void drawGuildinfo(final List<Item> missions, final List<Item> missionsCompleted) {
         final Image point = ImageLoader.POINT.getImage();
-        Platform.runLater(() -> {
-            final var context2d = this.canvas.getGraphicsContext2D();
-            context2d.save();
-            this.recalculateFontSizes();
-            context2d.setFill(Color.BLACK);
-            context2d.setTextBaseline(VPos.TOP);
-            context2d.setFont(Font.font(this.headerFontSize));
-            context2d.fillText("Missions", labyrinthRegionX / 2, 0);
-            context2d.setFont(Font.getDefault());
-            drawMissions(missions, context2d, point);
-            this.recalculateFontSizes();
-            context2d.setFill(Color.BLACK);
-            context2d.setTextBaseline(VPos.TOP);
-            context2d.setFont(Font.font(this.headerFontSize));
-            context2d.setTextAlign(TextAlignment.CENTER);
-            context2d.fillText("Missions Completed", labyrinthTopLeftX / 2, lineMissionsY);
-            context2d.setFont(Font.getDefault());
-            i = i + 2;
-            drawMissions(missionsCompleted, context2d, point);
-            drawLegend(context2d);
-            context2d.restore();
-            i = 2;
-        });
+        final var context2d = this.canvas.getGraphicsContext2D();
+        context2d.save();
+        this.recalculateFontSizes();
+        context2d.setFill(Color.BLACK);
+        context2d.setTextBaseline(VPos.TOP);
+        context2d.setFont(Font.font(this.headerFontSize));
+        context2d.fillText("Missions", labyrinthRegionX / 2, 0);
+        context2d.setFont(Font.getDefault());
+        drawMissions(missions, context2d, point);
+        this.recalculateFontSizes();
+        context2d.setFill(Color.BLACK);
+        context2d.setTextBaseline(VPos.TOP);
+        context2d.setFont(Font.font(this.headerFontSize));
+        context2d.setTextAlign(TextAlignment.CENTER);
+        context2d.fillText("Missions Completed", labyrinthTopLeftX / 2, lineMissionsY);
+        context2d.setFont(Font.getDefault());
+        i = i + 2;
+        drawMissions(missionsCompleted, context2d, point);
+        drawLegend(context2d);
+        context2d.restore();
+        i = 2;
     }
     /**
      * Draw the legend of image-icon.
@@ -448,76 +405,70 @@ public final class GameJFXView implements GameView, JFXInputSource {
         context2d.setFont(Font.getDefault());
     }
 
-    @Override
-    public void drawContext(final Context context) {
-        Platform.runLater(() -> {
-            final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
-            context2d.save();
-            context2d.setFill(Color.BLACK);
-            if (context instanceof UpdateBoardContext) {
-                final UpdateBoardContext update = (UpdateBoardContext) context;
+    private void drawContext(final GameSnapshot frame) {
+        final GraphicsContext context2d = this.canvas.getGraphicsContext2D();
+        context2d.save();
+        context2d.setFill(Color.BLACK);
+        if (frame.getOverlay() == GameSnapshot.Overlay.TURN_START) {
+            context2d.setStroke(Color.WHITESMOKE);
+            context2d.setFill(BASE_COLOR);
+            final double popupWidth = this.labyrinthSize / 2;
+            final double popupHeight = this.headerFontSize + this.desFontSize * 3;
+            final double x = (this.canvas.getWidth() - popupWidth) / 2;
+            final double y = (this.canvas.getHeight() - popupHeight) / 2;
+            context2d.fillRect(x, y, popupWidth, popupHeight);
+            context2d.strokeRect(x, y, popupWidth, popupHeight);
+            context2d.setFill(playerIndexToColor(frame.getTurnPlayerIndex()));
+            context2d.setTextAlign(TextAlignment.CENTER);
+            context2d.setTextBaseline(VPos.TOP);
+            context2d.setFont(Font.font(this.headerFontSize));
+            context2d.fillText("Player " + (frame.getTurnPlayerIndex() + 1) + "'s turn", this.canvas.getWidth() / 2, y);
 
+            //footer
+            context2d.setFont(Font.font(this.desFontSize));
+            context2d.setTextBaseline(VPos.BOTTOM);
+            context2d.setFill(Color.BLACK);
+            context2d.fillText("Press Enter/Space to dismiss", this.canvas.getWidth() / 2, y + popupHeight);
+        }
+        if (frame.getOverlay() == GameSnapshot.Overlay.SELECTION) {
+            for (final Coordinate t : frame.getSelected()) {
                 context2d.setStroke(Color.WHITESMOKE);
-                context2d.setFill(BASE_COLOR);
-                final double popupWidth = this.labyrinthSize / 2;
-                final double popupHeight = this.headerFontSize + this.desFontSize * 3;
-                final double x = (this.canvas.getWidth() - popupWidth) / 2;
-                final double y = (this.canvas.getHeight() - popupHeight) / 2;
-                context2d.fillRect(x, y, popupWidth, popupHeight);
-                context2d.strokeRect(x, y, popupWidth, popupHeight);
-                context2d.setFill(playerIndexToColor(update.getVisualPlayerIndex()));
-                context2d.setTextAlign(TextAlignment.CENTER);
-                context2d.setTextBaseline(VPos.TOP);
-                context2d.setFont(Font.font(this.headerFontSize));
-                context2d.fillText("Player " + (update.getVisualPlayerIndex() + 1) + "'s turn", this.canvas.getWidth() / 2, y);
-
-                //footer
-                context2d.setFont(Font.font(this.desFontSize));
-                context2d.setTextBaseline(VPos.BOTTOM);
-                context2d.setFill(Color.BLACK);
-                context2d.fillText("Press Enter/Space to dismiss", this.canvas.getWidth() / 2, y + popupHeight);
-            }
-            if (context instanceof LabyrinthContext) {
-                for (final Coordinate t : ((LabyrinthContext) context).getSelected()) {
-                    context2d.setStroke(Color.WHITESMOKE);
-                    final double y = labyrinthTopLeftY + tileHeight * t.row();
-                    context2d.strokeRect(labyrinthTopLeftX + tileWidth * t.column(), y, tileWidth, tileHeight);
-                }
-            }
-            if (context instanceof PlayersContext && ((PlayersContext) context).getTurnSubphase() == Subphase.DICE) {
-                context2d.setStroke(Color.WHITESMOKE);
-                context2d.setFill(BASE_COLOR);
-                final double popupWidth = this.labyrinthSize / 2;
-                final double popupHeight = this.headerFontSize + this.desFontSize * 3;
-                final double x = (this.canvas.getWidth() - popupWidth) / 2;
-                final double y = (this.canvas.getHeight() - popupHeight) / 2;
-                context2d.fillRect(x, y, popupWidth, popupHeight);
-                context2d.strokeRect(x, y, popupWidth, popupHeight);
-                context2d.setFill(Color.WHITESMOKE);
-                context2d.setTextAlign(TextAlignment.CENTER);
-                context2d.setTextBaseline(VPos.TOP);
-                context2d.setFont(Font.font(this.headerFontSize));
-                context2d.fillText("Press ENTER/SPACE to roll the dice", this.canvas.getWidth() / 2, y);
-
-                //footer
-                context2d.setFont(Font.font(this.desFontSize));
-                context2d.setTextBaseline(VPos.BOTTOM);
-                context2d.setFill(Color.BLACK);
-                context2d.fillText("Press Enter/Space to dismiss",
-                this.canvas.getWidth() / 2, y + popupHeight);
+                final double y = labyrinthTopLeftY + tileHeight * t.row();
+                context2d.strokeRect(labyrinthTopLeftX + tileWidth * t.column(), y, tileWidth, tileHeight);
             }
-            if (context instanceof GuildContext) {
-                final GuildContext guild = (GuildContext) context;
-                context2d.setFont(Font.font(this.desFontSize));
-                i = 2;
-                recalculateFontSizes();
-                context2d.setTextBaseline(VPos.CENTER);
-                final double dim = imageDim * guild.getMenuIndex();
-                context2d.fillText(">", lineMissionsX / 2, lineMissionsY + dim + imageDim / 2);
+        }
+        if (frame.getOverlay() == GameSnapshot.Overlay.DICE) {
+            context2d.setStroke(Color.WHITESMOKE);
+            context2d.setFill(BASE_COLOR);
+            final double popupWidth = this.labyrinthSize / 2;
+            final double popupHeight = this.headerFontSize + this.desFontSize * 3;
+            final double x = (this.canvas.getWidth() - popupWidth) / 2;
+            final double y = (this.canvas.getHeight() - popupHeight) / 2;
+            context2d.fillRect(x, y, popupWidth, popupHeight);
+            context2d.strokeRect(x, y, popupWidth, popupHeight);
+            context2d.setFill(Color.WHITESMOKE);
+            context2d.setTextAlign(TextAlignment.CENTER);
+            context2d.setTextBaseline(VPos.TOP);
+            context2d.setFont(Font.font(this.headerFontSize));
+            context2d.fillText("Press ENTER/SPACE to roll the dice", this.canvas.getWidth() / 2, y);
 
-            }
-            context2d.restore();
-        });
+            //footer
+            context2d.setFont(Font.font(this.desFontSize));
+            context2d.setTextBaseline(VPos.BOTTOM);
+            context2d.setFill(Color.BLACK);
+            context2d.fillText("Press Enter/Space to dismiss",
+            this.canvas.getWidth() / 2, y + popupHeight);
+        }
+        if (frame.getOverlay() == GameSnapshot.Overlay.GUILD_MENU) {
+            context2d.setFont(Font.font(this.desFontSize));
+            i = 2;
+            recalculateFontSizes();
+            context2d.setTextBaseline(VPos.CENTER);
+            final double dim = imageDim * frame.getGuildMenuIndex();
+            context2d.fillText(">", lineMissionsX / 2, lineMissionsY + dim + imageDim / 2);
+
+        }
+        context2d.restore();
     }
 
     private Image materialToImage(final Material material) {
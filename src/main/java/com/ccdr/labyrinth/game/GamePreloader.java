@@ -0,0 +1,116 @@
+package com.ccdr.labyrinth.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.ccdr.labyrinth.game.storage.BoardLibrary;
+
+/**
+ * Generates games in the background, before they are actually requested.
+ * While the menu is open it receives every configuration the player selects and starts generating it,
+ * so when Play is pressed the game is usually already there.
+ * Only the latest configuration is kept: preloading a new one cancels the previous.
+ * A generation that has already started is not interrupted, its result is just dropped.
+ * With a {@link BoardLibrary} the labyrinth is read from it instead of being generated.
+ */
+public final class GamePreloader {
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        final Thread thread = new Thread(task, "game-preloader");
+        //must not keep the application alive
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Optional<BoardLibrary> library;
+    private GameConfig pendingConfig;
+    private Future<GameSession> pending;
+
+    /**
+     * Creates a preloader that generates every labyrinth.
+     */
+    public GamePreloader() {
+        this.library = Optional.empty();
+    }
+
+    /**
+     * Creates a preloader that picks every labyrinth from a library, using the seed of the config.
+     * @param library the stored boards
+     */
+    public GamePreloader(final BoardLibrary library) {
+        this.library = Optional.of(library);
+    }
+
+    /**
+     * Starts generating a game in the background, replacing the one being generated if the config is different.
+     * @param config parameters of the game, a copy is taken so the caller can keep changing it
+     */
+    public synchronized void preload(final GameConfig config) {
+        if (config.equals(this.pendingConfig)) {
+            return;
+        }
+        this.cancel();
+        final GameConfig copy = new GameConfig(config);
+        this.pendingConfig = copy;
+        this.pending = this.worker.submit(() -> this.create(copy));
+    }
+
+    /**
+     * Gives the game generated for the config, waiting for it if it is still being generated.
+     * If the config has never been preloaded, the game is generated on the calling thread.
+     * A preloaded game is given only once.
+     * @param config parameters of the game
+     * @return a new game
+     */
+    public GameSession take(final GameConfig config) {
+        final Future<GameSession> ready;
+        synchronized (this) {
+            if (!config.equals(this.pendingConfig)) {
+                this.cancel();
+                return this.create(config);
+            }
+            ready = this.pending;
+            this.pendingConfig = null;
+            this.pending = null;
+        }
+        try {
+            return ready.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return this.create(config);
+        } catch (final ExecutionException | CancellationException e) {
+            return this.create(config);
+        }
+    }
+
+    private GameSession create(final GameConfig config) {
+        if (this.library.isEmpty()) {
+            return new GameSession(config);
+        }
+        try {
+            return new GameSession(config, this.library.get());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the background generation.
+     */
+    public synchronized void shutdown() {
+        this.cancel();
+        this.worker.shutdownNow();
+    }
+
+    private void cancel() {
+        if (this.pending != null) {
+            this.pending.cancel(true);
+        }
+        this.pendingConfig = null;
+        this.pending = null;
+    }
+}
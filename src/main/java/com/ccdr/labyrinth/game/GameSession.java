@@ -0,0 +1,245 @@
+package com.ccdr.labyrinth.game;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import com.ccdr.labyrinth.game.context.Context;
+import com.ccdr.labyrinth.game.context.GuildContext;
+import com.ccdr.labyrinth.game.context.LabyrinthContext;
+import com.ccdr.labyrinth.game.context.PlayersContext;
+import com.ccdr.labyrinth.game.context.UpdateBoardContext;
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.storage.BoardLibrary;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Material;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * The state of one game: the labyrinth, the contexts and the active one.
+ * Inputs are applied immediately on the calling thread, so a session can be driven
+ * both by the {@link GameController} and by code that runs games without any view.
+ */
+public final class GameSession implements GameInputs {
+    private final Board board;
+    private final PlayersContext playerManager;
+    private final GuildContext guildContext;
+    private final long seed;
+    private Context activeContext;
+    private boolean forcedOver;
+    private int inputs;
+    private int turns;
+
+    /**
+     * Generates the labyrinth and sets up the contexts.
+     * @param config config object containing the parameters to initialize the game
+     */
+    public GameSession(final GameConfig config) {
+        this(config, config.getSeed());
+    }
+
+    /**
+     * Generates the labyrinth and sets up the contexts.
+     * Missions, labyrinth and dice use separate streams split from the seed, so that a change in how many
+     * values one of them consumes does not change what the others generate.
+     * Sessions created with the same config and seed, and given the same inputs, play the same game.
+     * @param config config object containing the parameters to initialize the game
+     * @param seed the seed of this game, it replaces the one in the config
+     */
+    public GameSession(final GameConfig config, final long seed) {
+        this(config, seed, null);
+    }
+
+    /**
+     * Sets up the contexts on a stored labyrinth, picked from the library by the seed of the config.
+     * The size of the labyrinth and the number of sources come from the stored board, not from the config.
+     * @param config config object containing the parameters to initialize the game
+     * @param library the boards to choose from
+     * @throws IOException if the stored board cannot be read
+     */
+    public GameSession(final GameConfig config, final BoardLibrary library) throws IOException {
+        this(config, config.getSeed(), library.forSeed(config.getSeed()));
+    }
+
+    /**
+     * @param config config object containing the parameters to initialize the game
+     * @param seed the seed of this game, it replaces the one in the config
+     * @param stored the labyrinth to play on, or null to generate it from the seed
+     */
+    //a stored board is decoded for this session only, so it is owned rather than copied
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private GameSession(final GameConfig config, final long seed, final Board stored) {
+        final SplittableRandom streams = new SplittableRandom(seed);
+        final SplittableRandom missions = streams.split();
+        final SplittableRandom labyrinth = streams.split();
+        final SplittableRandom dice = streams.split();
+        this.seed = seed;
+        if (stored == null) {
+            this.guildContext = new GuildContext(config.getPlayerCountOptions(), missions);
+            this.board = new BoardGenerator(
+                config.getLabyrinthHeight(),
+                config.getLabyrinthWidth(),
+                config.getSourceTiles(),
+                config.getPlayerCountOptions(),
+                guildContext.getMaterialPresents(),
+                labyrinth
+            ).connected(true).generate(guildContext.getMissions().getMaxPoints());
+            this.board.setHeight(config.getLabyrinthHeight());
+            this.board.setWidth(config.getLabyrinthWidth());
+        } else {
+            this.guildContext = new GuildContext(config.getPlayerCountOptions() * 2, missions, sourceMaterials(stored));
+            this.board = stored;
+        }
+        this.guildContext.tuneMissions(this.board);
+        //set up contexts
+        final UpdateBoardContext updateBoardContext = new UpdateBoardContext(this.board);
+        this.playerManager = new PlayersContext(config.getPlayerCountOptions(), this.board,
+        updateBoardContext, this.guildContext, dice);
+        final LabyrinthContext labyrinthContext = new LabyrinthContext(this.board, this.playerManager);
+
+        this.guildContext.setPlayerManager(this.playerManager);
+        this.guildContext.setNextContext(updateBoardContext);
+        updateBoardContext.setNextContext(labyrinthContext);
+        updateBoardContext.setPlayerManager(this.playerManager);
+        this.activeContext = updateBoardContext;
+    }
+
+    /**
+     * @return the materials of the sources on the board, or every material if there are no sources
+     */
+    private static List<Material> sourceMaterials(final Board board) {
+        final Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (final Tile tile : board.getMap().values()) {
+            if (tile instanceof SourceTile) {
+                materials.add(((SourceTile) tile).getMaterialType());
+            }
+        }
+        return materials.isEmpty() ? List.of(Material.values()) : List.copyOf(materials);
+    }
+
+    /**
+     * @return the seed that generated this game, to play it again
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * @return the labyrinth of this game
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * @return the context that owns the players
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public PlayersContext getPlayersContext() {
+        return this.playerManager;
+    }
+
+    /**
+     * @return the context that owns the missions
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public GuildContext getGuildContext() {
+        return this.guildContext;
+    }
+
+    /**
+     * @return the context that receives the next input
+     */
+    public Context getActiveContext() {
+        return this.activeContext;
+    }
+
+    /**
+     * @return how many inputs have been applied to this game
+     */
+    public int getInputCount() {
+        return this.inputs;
+    }
+
+    /**
+     * @return how many turns have started, counting the current one
+     */
+    public int getTurnCount() {
+        return this.turns;
+    }
+
+    /**
+     * @return true once every mission has been completed, or the game has been ended prematurely
+     */
+    public boolean isOver() {
+        return this.forcedOver || this.guildContext.getListOfMissions().isEmpty();
+    }
+
+    @Override
+    public void up() {
+        this.activeContext.up();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void down() {
+        this.activeContext.down();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void left() {
+        this.activeContext.left();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void right() {
+        this.activeContext.right();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void primary() {
+        this.activeContext.primary();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void secondary() {
+        this.activeContext.secondary();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void back() {
+        this.activeContext.back();
+        switchContextIfNecessary();
+    }
+
+    @Override
+    public void forceGameOver() {
+        this.forcedOver = true;
+    }
+
+    /**
+     * method that checks if the activeContext should be changed.
+     * This method is checked after every input.
+     */
+    private void switchContextIfNecessary() {
+        this.inputs++;
+        if (this.activeContext.done()) {
+            //a turn starts when its popup is dismissed
+            if (this.activeContext instanceof UpdateBoardContext) {
+                this.turns++;
+            }
+            this.activeContext = this.activeContext.getNextContext();
+        }
+    }
+}
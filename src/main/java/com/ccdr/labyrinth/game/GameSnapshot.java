@@ -0,0 +1,461 @@
+package com.ccdr.labyrinth.game;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.ccdr.labyrinth.game.context.Context;
+import com.ccdr.labyrinth.game.context.GuildContext;
+import com.ccdr.labyrinth.game.context.LabyrinthContext;
+import com.ccdr.labyrinth.game.context.PlayersContext;
+import com.ccdr.labyrinth.game.context.UpdateBoardContext;
+import com.ccdr.labyrinth.game.context.PlayersContext.Subphase;
+import com.ccdr.labyrinth.game.player.Player;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.GuildTile;
+import com.ccdr.labyrinth.game.tiles.Passages;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * Immutable copy of everything a {@link GameView} needs to draw one frame.
+ * It is built by the engine thread, so that the view can render it on its own thread
+ * without ever reading the live game objects.
+ */
+public final class GameSnapshot implements Passages {
+    /**
+     * The kinds of tile that are drawn differently.
+     */
+    public enum TileKind {
+        /**
+         * no tile in this cell.
+         */
+        EMPTY,
+        /**
+         * a StandardTile.
+         */
+        STANDARD,
+        /**
+         * a SourceTile.
+         */
+        SOURCE,
+        /**
+         * the GuildTile.
+         */
+        GUILD
+    }
+
+    /**
+     * The overlay that the active context shows on screen.
+     */
+    public enum Overlay {
+        /**
+         * nothing to show.
+         */
+        NONE,
+        /**
+         * popup that announces the turn of the next player.
+         */
+        TURN_START,
+        /**
+         * popup that asks to roll the dice.
+         */
+        DICE,
+        /**
+         * highlight of the tiles selected for a shift or a rotation.
+         */
+        SELECTION,
+        /**
+         * cursor of the guild missions menu.
+         */
+        GUILD_MENU
+    }
+
+    /**
+     * State of one player at the moment of the snapshot.
+     * @param coord position of the player
+     * @param points points of the player
+     * @param inventory quantity of every material owned by the player
+     */
+    public record PlayerState(Coordinate coord, int points, Map<Material, Integer> inventory) {
+        /**
+         * @param coord position of the player
+         * @param points points of the player
+         * @param inventory quantity of every material owned by the player
+         */
+        public PlayerState {
+            inventory = Map.copyOf(inventory);
+        }
+    }
+
+    private final Set<GameView.Region> dirty;
+    private final int height, width;
+    private final byte[] patterns;
+    private final boolean[] discovered;
+    private final boolean[] active;
+    private final TileKind[] kinds;
+    private final Material[] materials;
+    private final int[] amounts;
+    private final long[] states;
+    private final Optional<Coordinate> guildTile;
+    private final Set<Integer> blockedRows, blockedColumns;
+    private final List<PlayerState> players;
+    private final List<Material> materialPresent;
+    private final List<Item> missions;
+    private final List<Item> completed;
+    private final int activePlayer;
+    private final int diceValue;
+    private final int maxDiceValue;
+    private final Overlay overlay;
+    private final int turnPlayer;
+    private final List<Coordinate> selected;
+    private final int guildMenuIndex;
+
+    private GameSnapshot(final GameSnapshot frame, final Set<GameView.Region> dirty) {
+        this.dirty = Collections.unmodifiableSet(dirty);
+        this.height = frame.height;
+        this.width = frame.width;
+        this.patterns = frame.patterns;
+        this.discovered = frame.discovered;
+        this.active = frame.active;
+        this.kinds = frame.kinds;
+        this.materials = frame.materials;
+        this.amounts = frame.amounts;
+        this.states = frame.states;
+        this.guildTile = frame.guildTile;
+        this.blockedRows = frame.blockedRows;
+        this.blockedColumns = frame.blockedColumns;
+        this.players = frame.players;
+        this.materialPresent = frame.materialPresent;
+        this.missions = frame.missions;
+        this.completed = frame.completed;
+        this.activePlayer = frame.activePlayer;
+        this.diceValue = frame.diceValue;
+        this.maxDiceValue = frame.maxDiceValue;
+        this.overlay = frame.overlay;
+        this.turnPlayer = frame.turnPlayer;
+        this.selected = frame.selected;
+        this.guildMenuIndex = frame.guildMenuIndex;
+    }
+
+    private GameSnapshot(final Set<GameView.Region> dirty, final Board board, final PlayersContext playersManager,
+        final GuildContext guild, final Context context) {
+        final Set<GameView.Region> regions = EnumSet.noneOf(GameView.Region.class);
+        regions.addAll(dirty);
+        this.dirty = Collections.unmodifiableSet(regions);
+        this.height = board.getHeight();
+        this.width = board.getWidth();
+        final int cells = this.height * this.width;
+        this.patterns = new byte[cells];
+        this.discovered = new boolean[cells];
+        this.active = new boolean[cells];
+        this.kinds = new TileKind[cells];
+        this.materials = new Material[cells];
+        this.amounts = new int[cells];
+        this.states = new long[cells];
+        for (int row = 0; row < this.height; row++) {
+            for (int column = 0; column < this.width; column++) {
+                this.copyTile(row * this.width + column, board.getTile(row, column));
+            }
+        }
+        this.guildTile = this.findGuild();
+        this.blockedRows = Set.copyOf(board.getBlockedRows());
+        this.blockedColumns = Set.copyOf(board.getBlockedColumns());
+        this.players = playersManager.getPlayers().stream()
+            .map(p -> new PlayerState(p.getCoord(), p.getPoints(), inventoryOf(p)))
+            .toList();
+        this.activePlayer = playersManager.getActivePlayerIndex();
+        this.diceValue = playersManager.getDiceValue();
+        this.maxDiceValue = playersManager.getMaxDiceValue();
+        this.materialPresent = List.copyOf(guild.getMaterialPresents());
+        this.missions = List.copyOf(guild.getListOfMissions());
+        this.completed = List.copyOf(guild.getMissionCompl());
+        this.guildMenuIndex = guild.getMenuIndex();
+        if (context instanceof UpdateBoardContext) {
+            this.overlay = Overlay.TURN_START;
+            this.turnPlayer = ((UpdateBoardContext) context).getVisualPlayerIndex();
+        } else {
+            this.turnPlayer = this.activePlayer;
+            if (context instanceof LabyrinthContext) {
+                this.overlay = Overlay.SELECTION;
+            } else if (context instanceof PlayersContext && ((PlayersContext) context).getTurnSubphase() == Subphase.DICE) {
+                this.overlay = Overlay.DICE;
+            } else if (context instanceof GuildContext) {
+                this.overlay = Overlay.GUILD_MENU;
+            } else {
+                this.overlay = Overlay.NONE;
+            }
+        }
+        this.selected = this.overlay == Overlay.SELECTION
+            ? List.copyOf(((LabyrinthContext) context).getSelected())
+            : List.of();
+    }
+
+    /**
+     * Copies the current state of the game.
+     * @param dirty the screen regions that must be redrawn with this snapshot
+     * @param board the labyrinth
+     * @param playersManager the context that owns the players
+     * @param guild the context that owns the missions
+     * @param context the active context
+     * @return a snapshot of the game
+     */
+    public static GameSnapshot capture(final Set<GameView.Region> dirty, final Board board,
+        final PlayersContext playersManager, final GuildContext guild, final Context context) {
+        return new GameSnapshot(dirty, board, playersManager, guild, context);
+    }
+
+    /**
+     * Used by views that skip frames: the newest snapshot has the most recent data,
+     * but it must also redraw the regions that the skipped one should have redrawn.
+     * @param skipped a snapshot that has not been drawn and will never be
+     * @return this snapshot, with the dirty regions of both
+     */
+    public GameSnapshot mergeDirty(final GameSnapshot skipped) {
+        if (this.dirty.containsAll(skipped.dirty)) {
+            return this;
+        }
+        final Set<GameView.Region> union = EnumSet.copyOf(this.dirty);
+        union.addAll(skipped.dirty);
+        return new GameSnapshot(this, union);
+    }
+
+    private void copyTile(final int index, final Tile tile) {
+        if (tile == null) {
+            this.kinds[index] = TileKind.EMPTY;
+            return;
+        }
+        this.patterns[index] = (byte) tile.getPatternMask();
+        this.discovered[index] = tile.isDiscovered();
+        this.states[index] = ZobristHash.state(tile);
+        if (tile instanceof SourceTile) {
+            final SourceTile source = (SourceTile) tile;
+            this.kinds[index] = TileKind.SOURCE;
+            this.materials[index] = source.getMaterialType();
+            this.active[index] = source.isActive();
+            this.amounts[index] = source.isActive() ? source.getQuantity() : 0;
+        } else if (tile instanceof GuildTile) {
+            this.kinds[index] = TileKind.GUILD;
+        } else {
+            this.kinds[index] = TileKind.STANDARD;
+            if (tile instanceof StandardTile) {
+                this.materials[index] = ((StandardTile) tile).getBonusMaterial().orElse(null);
+                this.amounts[index] = ((StandardTile) tile).getBonusAmount();
+            }
+        }
+    }
+
+    private Optional<Coordinate> findGuild() {
+        for (int index = 0; index < this.kinds.length; index++) {
+            if (this.kinds[index] == TileKind.GUILD) {
+                return Optional.of(new Coordinate(index / this.width, index % this.width));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Map<Material, Integer> inventoryOf(final Player player) {
+        final Map<Material, Integer> inventory = new EnumMap<>(Material.class);
+        for (final Material m : Material.values()) {
+            inventory.put(m, player.getQuantityMaterial(m));
+        }
+        return inventory;
+    }
+
+    /**
+     * @return the screen regions that must be redrawn
+     */
+    public Set<GameView.Region> getDirtyRegions() {
+        return this.dirty;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return the kind of the tile
+     */
+    public TileKind getKind(final int row, final int column) {
+        return this.kinds[row * this.width + column];
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return the packed pattern of the tile, see {@link Direction#mask()}
+     */
+    public int getPattern(final int row, final int column) {
+        return this.patterns[row * this.width + column];
+    }
+
+    @Override
+    public boolean hasTile(final int row, final int column) {
+        return this.getKind(row, column) != TileKind.EMPTY;
+    }
+
+    @Override
+    public boolean isOpen(final int row, final int column, final Direction access) {
+        return (this.getPattern(row, column) & access.mask()) != 0;
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return true if the tile has been discovered
+     */
+    public boolean isDiscovered(final int row, final int column) {
+        return this.discovered[row * this.width + column];
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return true if the tile is a source that can give materials
+     */
+    public boolean isActiveSource(final int row, final int column) {
+        return this.active[row * this.width + column];
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return the material of a source tile, or the bonus material of a standard tile
+     */
+    public Optional<Material> getMaterial(final int row, final int column) {
+        return Optional.ofNullable(this.materials[row * this.width + column]);
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return how many materials the tile gives to the next player that enters it
+     */
+    public int getAmount(final int row, final int column) {
+        return this.amounts[row * this.width + column];
+    }
+
+    /**
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return the code of the state of the tile, see {@link ZobristHash#state(Tile)}, 0 if there is no tile
+     */
+    public long getTileState(final int row, final int column) {
+        return this.states[row * this.width + column];
+    }
+
+    /**
+     * @return where the guild is, it is never shifted; empty on a board without a guild
+     */
+    public Optional<Coordinate> getGuild() {
+        return this.guildTile;
+    }
+
+    /**
+     * @return the rows that cannot be shifted
+     */
+    public Set<Integer> getBlockedRows() {
+        return this.blockedRows;
+    }
+
+    /**
+     * @return the columns that cannot be shifted
+     */
+    public Set<Integer> getBlockedColumns() {
+        return this.blockedColumns;
+    }
+
+    /**
+     * @return the state of every player, in turn order
+     */
+    public List<PlayerState> getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * @return the index of the active player
+     */
+    public int getActivePlayerIndex() {
+        return this.activePlayer;
+    }
+
+    /**
+     * @return the moves left to the active player
+     */
+    public int getDiceValue() {
+        return this.diceValue;
+    }
+
+    /**
+     * @return the highest value that the dice can roll
+     */
+    public int getMaxDiceValue() {
+        return this.maxDiceValue;
+    }
+
+    /**
+     * @return the materials used in the game
+     */
+    public List<Material> getMaterialPresent() {
+        return this.materialPresent;
+    }
+
+    /**
+     * @return the missions still available
+     */
+    public List<Item> getMissions() {
+        return this.missions;
+    }
+
+    /**
+     * @return the missions already completed
+     */
+    public List<Item> getCompletedMissions() {
+        return this.completed;
+    }
+
+    /**
+     * @return the overlay of the active context
+     */
+    public Overlay getOverlay() {
+        return this.overlay;
+    }
+
+    /**
+     * @return the index of the player whose turn is announced by the TURN_START overlay
+     */
+    public int getTurnPlayerIndex() {
+        return this.turnPlayer;
+    }
+
+    /**
+     * @return the tiles highlighted by the SELECTION overlay
+     */
+    public List<Coordinate> getSelected() {
+        return this.selected;
+    }
+
+    /**
+     * @return the position of the cursor of the GUILD_MENU overlay
+     */
+    public int getGuildMenuIndex() {
+        return this.guildMenuIndex;
+    }
+}
@@ -1,58 +1,46 @@
 package com.ccdr.labyrinth.game;
 
-import java.util.List;
-
-import com.ccdr.labyrinth.game.context.Context;
-import com.ccdr.labyrinth.game.context.PlayersContext;
-import com.ccdr.labyrinth.game.player.Player;
-import com.ccdr.labyrinth.game.tiles.Board;
-import com.ccdr.labyrinth.game.util.Item;
-import com.ccdr.labyrinth.game.util.Material;
-
 /**
- * This interface describes all the draw methods that should be called in order to render the game state.
+ * This interface describes how the game state gets rendered.
+ * Every frame the game controller hands to the view a single immutable {@link GameSnapshot},
+ * so views never read the live game objects.
  */
 public interface GameView {
     /**
-     * Enables this object to render on screen.
-     */
-    void onEnable();
-
-    /**
-     * Clears the screen.
-     * This method should be called before any of the draw methods, in order to avoid drawing on top of the previous frame
+     * Areas of the screen that can be cleared and redrawn independently from each other.
      */
-    void clear();
+    enum Region {
+        /**
+         * area that shows the guild missions and the legend.
+         */
+        MISSIONS,
+        /**
+         * area that shows the labyrinth, the players on it and the context overlays.
+         */
+        BOARD,
+        /**
+         * area that shows the players statistics.
+         */
+        STATS
+    }
 
     /**
-     * Draw the labyrinth.
-     * @param board board object that contains the tiles to draw
-     */
-    void drawBoard(Board board);
-
-    /**
-     * Draw the players on the board.
-     * @param players the list of players to draw
-     */
-    void drawPlayersOnBoard(List<Player> players);
-
-    /**
-     * Draw the players statistics.
-     * @param playersManager an object of type PlayersManager
-     * @param materialPresent the list of the materials present in the game
+     * Enables this object to render on screen.
      */
-    void drawPlayersStats(PlayersContext playersManager, List<Material> materialPresent);
+    void onEnable();
 
     /**
-     * Draw the objectives showing what the player needs to do to get points.
-     * @param missions list of objectives to show
-     * @param completed list of objectives already completed
+     * Draws one frame. Only the regions listed in {@link GameSnapshot#getDirtyRegions()} need to be redrawn.
+     * Views that render on another thread may skip a frame if a newer one arrives before it is drawn,
+     * as long as the regions of the skipped frame get redrawn.
+     * @param frame the game state to draw
      */
-    void drawGuildinfo(List<Item> missions, List<Item> completed);
+    void draw(GameSnapshot frame);
 
     /**
-     * Draw an overlay to the screen, based on what context should be shown to the user.
-     * @param context context object to show on the screen
+     * Tells if the whole view must be redrawn, for example because the window has been resized.
+     * Calling this method resets the condition.
+     * @return true if every region must be redrawn since the last call
      */
-    void drawContext(Context context);
+    boolean invalidated();
 }
@@ -0,0 +1,185 @@
+package com.ccdr.labyrinth.game;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import com.ccdr.labyrinth.game.tiles.Passages;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * Finds the tiles that a player can reach with a given number of moves, following the same rule
+ * as the players: a move is allowed when both tiles are open towards each other.
+ * The search is a breadth-first visit bounded by the moves, on a queue of cell indexes
+ * (row * width + column), that records a bitset of the reached cells, their distance and the direction
+ * of the move that reached them, so that a shortest path to any of them can be given back.
+ * It reads only the {@link Passages}, so it works on the board as well as on a {@link GameSnapshot}.
+ * All the arrays are kept between queries and only the cells reached by the previous query are reset,
+ * so a query allocates nothing and costs as much as the cells it reaches, not the whole board.
+ * An object can be reused for boards of any size, but not by more threads at the same time.
+ */
+public final class Reachability {
+    private static final int WORD_SHIFT = 6;
+    private int[] queue = new int[0];
+    private int[] distances = new int[0];
+    private int[] arrivals = new int[0];
+    private long[] reached = new long[0];
+    private int count;
+    private int width;
+    private int start;
+
+    /**
+     * Visits the board from a starting tile.
+     * @param board the labyrinth.
+     * @param from the starting tile, it is reached with 0 moves.
+     * @param moves the maximum number of moves, for example the value of the dice.
+     * @return the number of reached tiles, the starting one included.
+     * @throws IllegalArgumentException if the moves are negative.
+     */
+    public int compute(final Passages board, final Coordinate from, final int moves) {
+        return this.compute(board, from.row(), from.column(), moves);
+    }
+
+    /**
+     * Visits the board from a starting tile.
+     * @param board the labyrinth.
+     * @param row row of the starting tile.
+     * @param column column of the starting tile.
+     * @param moves the maximum number of moves, for example the value of the dice.
+     * @return the number of reached tiles, the starting one included.
+     * @throws IllegalArgumentException if the moves are negative.
+     */
+    public int compute(final Passages board, final int row, final int column, final int moves) {
+        if (moves < 0) {
+            throw new IllegalArgumentException("Negative moves: " + moves);
+        }
+        this.reset(board.getHeight(), board.getWidth());
+        final int height = board.getHeight();
+        if (row < 0 || column < 0 || row >= height || column >= this.width || !board.hasTile(row, column)) {
+            return 0;
+        }
+        this.start = row * this.width + column;
+        this.visit(this.start, 0, 0);
+        for (int head = 0; head < this.count; head++) {
+            final int cell = this.queue[head];
+            final int distance = this.distances[cell];
+            if (distance == moves) {
+                //cells are visited in order of distance, nothing after this one can be expanded
+                break;
+            }
+            final int cellRow = cell / this.width;
+            final int cellColumn = cell % this.width;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                final Direction direction = Direction.of(d);
+                final int nextRow = cellRow + direction.rowStep();
+                final int nextColumn = cellColumn + direction.columnStep();
+                if (nextRow < 0 || nextColumn < 0 || nextRow >= height || nextColumn >= this.width) {
+                    continue;
+                }
+                final int next = nextRow * this.width + nextColumn;
+                if (!this.isReached(next) && board.isOpen(cellRow, cellColumn, direction)
+                    && board.isOpen(nextRow, nextColumn, direction.opposite())) {
+                    this.visit(next, distance + 1, d);
+                }
+            }
+        }
+        return this.count;
+    }
+
+    /**
+     * @return the number of tiles reached by the last query.
+     */
+    public int getReachedCount() {
+        return this.count;
+    }
+
+    /**
+     * Gives the reached tiles without allocating anything: they are in order of distance.
+     * @param index from 0 to {@link #getReachedCount()} excluded.
+     * @return the cell index (row * width + column) of a reached tile.
+     */
+    public int getReachedCell(final int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.queue[index];
+    }
+
+    /**
+     * @param row row of the tile.
+     * @param column column of the tile.
+     * @return true if the last query reached the tile.
+     */
+    public boolean isReachable(final int row, final int column) {
+        return row >= 0 && column >= 0 && column < this.width && this.isReached(row * this.width + column);
+    }
+
+    /**
+     * @param row row of the tile.
+     * @param column column of the tile.
+     * @return the moves needed to reach the tile in the last query, or -1 if it has not been reached.
+     */
+    public int getDistance(final int row, final int column) {
+        return this.isReachable(row, column) ? this.distances[row * this.width + column] : -1;
+    }
+
+    /**
+     * @param row row of a tile reached by the last query.
+     * @param column column of a tile reached by the last query.
+     * @return the moves of a shortest path from the starting tile, empty for the starting tile itself.
+     */
+    public List<Direction> getPath(final int row, final int column) {
+        if (!this.isReachable(row, column)) {
+            throw new IllegalArgumentException("Tile not reached: " + row + ", " + column);
+        }
+        final List<Direction> path = new ArrayList<>(this.distances[row * this.width + column]);
+        int cell = row * this.width + column;
+        while (cell != this.start) {
+            final Direction arrived = Direction.of(this.arrivals[cell]);
+            path.add(arrived);
+            cell -= arrived.rowStep() * this.width + arrived.columnStep();
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return a copy of the reached cells of the last query, indexed by row * width + column.
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(this.reached);
+    }
+
+    private boolean isReached(final int cell) {
+        final int word = cell >>> WORD_SHIFT;
+        return word < this.reached.length && (this.reached[word] & 1L << cell) != 0;
+    }
+
+    private void visit(final int cell, final int distance, final int arrival) {
+        this.reached[cell >>> WORD_SHIFT] |= 1L << cell;
+        this.distances[cell] = distance;
+        this.arrivals[cell] = arrival;
+        this.queue[this.count++] = cell;
+    }
+
+    /**
+     * Forgets the last query, clearing only the words of the bitset that it has set.
+     * The arrays are replaced only when the board has more cells than they can hold.
+     */
+    private void reset(final int height, final int newWidth) {
+        for (int i = 0; i < this.count; i++) {
+            this.reached[this.queue[i] >>> WORD_SHIFT] = 0;
+        }
+        this.count = 0;
+        this.width = newWidth;
+        final int cells = height * newWidth;
+        if (cells > this.queue.length) {
+            this.queue = new int[cells];
+            this.distances = new int[cells];
+            this.arrivals = new int[cells];
+            this.reached = new long[(cells + Long.SIZE - 1) >>> WORD_SHIFT];
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ccdr.labyrinth.game;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import com.ccdr.labyrinth.ImageLoader;
+import com.ccdr.labyrinth.game.GameSnapshot.TileKind;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Material;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Cache of the images used to draw the tiles of the labyrinth.
+ * A tile only depends on its open directions (16 patterns) and on its decoration
+ * (bonus material, source material and state, guild), so every combination is rendered once
+ * at the current tile size and then drawn with a single image copy.
+ * Sprites are rendered lazily the first time they are needed, and thrown away when the tile size changes.
+ * Must only be used from the JavaFX thread.
+ */
+final class TileSpriteCache {
+    private static final double TILE_MIDDLE_WIDTH = 2.0 / 3;
+    private static final Image WALL = ImageLoader.WALL.getImage();
+    private static final Image PATH_CENTER = ImageLoader.PATH.getImage();
+    private static final Image PATH_VERTICAL = ImageLoader.PATH.getImage();
+    private static final Image PATH_HORIZONTAL = ImageLoader.PATH.getImage();
+    private static final Image PATH_GUILD = ImageLoader.GUILD.getImage();
+    private static final int PATTERNS = Direction.ALL_OPEN + 1;
+    private static final int MATERIALS = Material.values().length;
+    //decorations: none, one per bonus material, two per source material (inactive/active), guild
+    private static final int PLAIN = 0;
+    private static final int FIRST_BONUS = PLAIN + 1;
+    private static final int FIRST_SOURCE = FIRST_BONUS + MATERIALS;
+    private static final int GUILD = FIRST_SOURCE + MATERIALS * 2;
+    private static final int DECORATIONS = GUILD + 1;
+
+    private final Function<Material, Image> materialImages;
+    private final Image[] sprites = new Image[PATTERNS * DECORATIONS];
+    private final SnapshotParameters parameters = new SnapshotParameters();
+    private Canvas scratch;
+    private int size;
+
+    /**
+     * @param materialImages gives the image drawn for a material
+     */
+    TileSpriteCache(final Function<Material, Image> materialImages) {
+        this.materialImages = materialImages;
+        this.parameters.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * Changes the size of the sprites, clearing the cache if it differs from the current one.
+     * @param tileSize the size of a tile on screen, in pixels
+     */
+    void resize(final double tileSize) {
+        final int newSize = Math.max(1, (int) Math.ceil(tileSize));
+        if (newSize != this.size) {
+            this.size = newSize;
+            this.scratch = new Canvas(newSize, newSize);
+            Arrays.fill(this.sprites, null);
+        }
+    }
+
+    /**
+     * @param frame the snapshot that contains the tile
+     * @param row row of the tile
+     * @param column column of the tile
+     * @return the image of the tile, at the size given to {@link #resize(double)}
+     */
+    Image get(final GameSnapshot frame, final int row, final int column) {
+        final int pattern = frame.getPattern(row, column) & Direction.ALL_OPEN;
+        final int decoration = decorationOf(frame, row, column);
+        final int index = decoration * PATTERNS + pattern;
+        if (this.sprites[index] == null) {
+            this.sprites[index] = this.render(pattern, decoration);
+        }
+        return this.sprites[index];
+    }
+
+    private static int decorationOf(final GameSnapshot frame, final int row, final int column) {
+        final TileKind kind = frame.getKind(row, column);
+        if (kind == TileKind.GUILD) {
+            return GUILD;
+        }
+        final Material material = frame.getMaterial(row, column).orElse(null);
+        if (material == null) {
+            return PLAIN;
+        }
+        if (kind == TileKind.SOURCE) {
+            return FIRST_SOURCE + material.ordinal() * 2 + (frame.isActiveSource(row, column) ? 1 : 0);
+        }
+        return FIRST_BONUS + material.ordinal();
+    }
+
+    private Image render(final int pattern, final int decoration) {
+        final GraphicsContext context2d = this.scratch.getGraphicsContext2D();
+        final double tileSize = this.size;
+        context2d.clearRect(0, 0, tileSize, tileSize);
+
+        //reference points in the tile
+        final double tileMiddleSize = tileSize * TILE_MIDDLE_WIDTH;
+        final double border = (tileSize - tileMiddleSize) / 2;
+        final double split = border + tileMiddleSize;
+
+        //corners are always a wall
+        context2d.drawImage(WALL, 0, 0, border, border);
+        context2d.drawImage(WALL, split, 0, border, border);
+        context2d.drawImage(WALL, 0, split, border, border);
+        context2d.drawImage(WALL, split, split, border, border);
+        //center is always walkable
+        context2d.drawImage(PATH_CENTER, border, border, tileMiddleSize, tileMiddleSize);
+
+        //vertical paths
+        context2d.drawImage(isOpen(pattern, Direction.UP) ? PATH_VERTICAL : WALL, border, 0, tileMiddleSize, border);
+        context2d.drawImage(isOpen(pattern, Direction.DOWN) ? PATH_VERTICAL : WALL, border, split, tileMiddleSize, border);
+        //horizontal paths
+        context2d.drawImage(isOpen(pattern, Direction.LEFT) ? PATH_HORIZONTAL : WALL, 0, border, border, tileMiddleSize);
+        context2d.drawImage(isOpen(pattern, Direction.RIGHT) ? PATH_HORIZONTAL : WALL, split, border, border, tileMiddleSize);
+
+        //additional graphics on top of the standard path rendering
+        if (decoration == GUILD) {
+            context2d.drawImage(PATH_GUILD, 0, 0, tileSize, tileSize);
+        } else if (decoration >= FIRST_SOURCE) {
+            final int source = decoration - FIRST_SOURCE;
+            context2d.setStroke(source % 2 == 1 ? Color.GREENYELLOW : Color.RED);
+            context2d.strokeOval(border, border, tileMiddleSize, tileMiddleSize);
+            this.drawMaterial(context2d, Material.values()[source / 2], border, tileMiddleSize);
+        } else if (decoration >= FIRST_BONUS) {
+            this.drawMaterial(context2d, Material.values()[decoration - FIRST_BONUS], border, tileMiddleSize);
+        }
+        return this.scratch.snapshot(this.parameters, new WritableImage(this.size, this.size));
+    }
+
+    private void drawMaterial(final GraphicsContext context2d, final Material material, final double border,
+        final double tileMiddleSize) {
+        final Image image = this.materialImages.apply(material);
+        if (image != null) {
+            context2d.drawImage(image, border, border, tileMiddleSize, tileMiddleSize);
+        }
+    }
+
+    private static boolean isOpen(final int pattern, final Direction access) {
+        return (pattern & access.mask()) != 0;
+    }
+}
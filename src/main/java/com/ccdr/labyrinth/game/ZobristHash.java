@@ -0,0 +1,188 @@
+package com.ccdr.labyrinth.game;
+
+import java.util.List;
+
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.GuildTile;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * A 64 bit fingerprint of the labyrinth, so that two boards in the same state get the same number
+ * however they got there.
+ * Every cell has a pseudo random key for every state its tile can be in (passages, kind, material,
+ * what a source holds and for how long it waits, a bonus, a visited guild), and the hash is the exclusive or
+ * of the keys of all the cells: a change only takes the old key of a cell out and puts the new one in,
+ * so a shift costs the length of the line and a rotation a single cell.
+ * The keys are computed from the cell and its state, not drawn at random, so the same board gets
+ * the same hash in every run and on every machine.
+ * The hash is kept up to date by the {@link GameBoard} that owns it; tiles that change by themselves,
+ * like a source giving its materials, must be reported with {@link Board#tileChanged(Coordinate)}.
+ * Discovering a tile does not change the hash, it changes only what is drawn.
+ * The codes of the states are public, so that a copy of the board, like the one searched by the computer
+ * players, hashes its tiles in the same way and gets the same numbers.
+ */
+public final class ZobristHash {
+    //bit fields of the state of a tile
+    private static final int KIND_SHIFT = 4;
+    private static final int MATERIAL_SHIFT = 6;
+    private static final int VISITED_SHIFT = 10;
+    private static final int QUANTITY_SHIFT = 11;
+    private static final int COOLDOWN_SHIFT = 37;
+    private static final long FIELD_MASK = (1L << 26) - 1;
+    private static final int STANDARD = 1;
+    private static final int SOURCE = 2;
+    private static final int GUILD = 3;
+    //constants of the 64 bit finalizer of MurmurHash3
+    private static final long MIX_FIRST = 0xff51afd7ed558ccdL;
+    private static final long MIX_SECOND = 0xc4ceb9fe1a85ec53L;
+    private static final int MIX_SHIFT = 33;
+    private static final long CELL_SALT = 0x9e3779b97f4a7c15L;
+    private final Board board;
+    private final int height, width;
+    private final long[] cellKeys;
+    private long hash;
+
+    /**
+     * Hashes every tile of the board.
+     * @param board the board to hash, it must notify every change.
+     */
+    ZobristHash(final Board board) {
+        this.board = board;
+        this.height = board.getHeight();
+        this.width = board.getWidth();
+        this.cellKeys = new long[this.height * this.width];
+        for (int row = 0; row < this.height; row++) {
+            for (int column = 0; column < this.width; column++) {
+                this.cellChanged(row, column);
+            }
+        }
+    }
+
+    /**
+     * @return the hash of the tiles of the board.
+     */
+    public long getHash() {
+        return this.hash;
+    }
+
+    /**
+     * @param players the positions of the players, in the order of their turns.
+     * @return the hash of the tiles of the board together with where the players stand.
+     */
+    public long withPlayers(final List<Coordinate> players) {
+        long combined = this.hash;
+        for (int player = 0; player < players.size(); player++) {
+            final Coordinate position = players.get(player);
+            combined ^= playerKey(player, position.row() * this.width + position.column());
+        }
+        return combined;
+    }
+
+    /**
+     * The key of a cell in a given state, the states of the tiles never have a negative code.
+     * @param cell index of the cell, row * width + column.
+     * @param state a code of the state of the cell.
+     * @return a pseudo random key, always the same for the same cell and state.
+     */
+    public static long key(final int cell, final long state) {
+        return mix(state + mix(cell ^ CELL_SALT));
+    }
+
+    /**
+     * @param player the index of the player.
+     * @param cell index of the cell where the player stands, row * width + column.
+     * @return the key of the player standing on the cell, different from the key of any tile.
+     */
+    public static long playerKey(final int player, final int cell) {
+        return key(cell, -1L - player);
+    }
+
+    /**
+     * The code of the state of a tile, that {@link #key(int, long)} turns into the key of its cell.
+     * Passages are in the lowest bits, as in {@link Tile#getPatternMask()}, followed by the kind of tile,
+     * the material, whether a guild has been visited, the quantity and the wait of a source.
+     * @param tile a tile of the board.
+     * @return a code that is never negative, and is the same for two tiles only if they are in the same state.
+     */
+    public static long state(final Tile tile) {
+        long state = tile.getPatternMask();
+        if (tile instanceof SourceTile) {
+            final SourceTile source = (SourceTile) tile;
+            state |= SOURCE << KIND_SHIFT | (source.getMaterialType().ordinal() + 1L) << MATERIAL_SHIFT
+                | (source.getQuantity() & FIELD_MASK) << QUANTITY_SHIFT
+                | (source.getRemainingCooldown() & FIELD_MASK) << COOLDOWN_SHIFT;
+        } else if (tile instanceof GuildTile) {
+            state |= GUILD << KIND_SHIFT | (((GuildTile) tile).isVisited() ? 1L : 0L) << VISITED_SHIFT;
+        } else {
+            state |= STANDARD << KIND_SHIFT;
+            if (tile instanceof StandardTile) {
+                final StandardTile standard = (StandardTile) tile;
+                state |= standard.getBonusMaterial().map(material -> material.ordinal() + 1L).orElse(0L)
+                    << MATERIAL_SHIFT | (standard.getBonusAmount() & FIELD_MASK) << QUANTITY_SHIFT;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @param state a code given by {@link #state(Tile)}.
+     * @param pattern the new passages, see {@link Direction#mask()}.
+     * @return the code of the same tile with other passages, as after a rotation.
+     */
+    public static long withPattern(final long state, final int pattern) {
+        return state & ~(long) Direction.ALL_OPEN | pattern & Direction.ALL_OPEN;
+    }
+
+    /**
+     * @param state a code given by {@link #state(Tile)}.
+     * @param quantity the materials that the tile holds now.
+     * @return the code of the same tile with another quantity, as after a player took its materials.
+     */
+    public static long withQuantity(final long state, final int quantity) {
+        return state & ~(FIELD_MASK << QUANTITY_SHIFT) | (quantity & FIELD_MASK) << QUANTITY_SHIFT;
+    }
+
+    /**
+     * @param row the shifted row.
+     */
+    void rowChanged(final int row) {
+        for (int column = 0; column < this.width; column++) {
+            this.cellChanged(row, column);
+        }
+    }
+
+    /**
+     * @param column the shifted column.
+     */
+    void columnChanged(final int column) {
+        for (int row = 0; row < this.height; row++) {
+            this.cellChanged(row, column);
+        }
+    }
+
+    /**
+     * @param row row of the changed tile.
+     * @param column column of the changed tile.
+     */
+    void cellChanged(final int row, final int column) {
+        if (row < 0 || column < 0 || row >= this.height || column >= this.width) {
+            return;
+        }
+        final int cell = row * this.width + column;
+        final Tile tile = this.board.getTile(row, column);
+        final long updated = tile == null ? 0 : key(cell, state(tile));
+        this.hash ^= this.cellKeys[cell] ^ updated;
+        this.cellKeys[cell] = updated;
+    }
+
+    private static long mix(final long value) {
+        long mixed = value;
+        mixed = (mixed ^ mixed >>> MIX_SHIFT) * MIX_FIRST;
+        mixed = (mixed ^ mixed >>> MIX_SHIFT) * MIX_SECOND;
+        return mixed ^ mixed >>> MIX_SHIFT;
+    }
+}
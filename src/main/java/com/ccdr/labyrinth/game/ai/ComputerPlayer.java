@@ -0,0 +1,336 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.GameView;
+import com.ccdr.labyrinth.game.ai.Turn.Change;
+import com.ccdr.labyrinth.game.ai.Turn.Kind;
+import com.ccdr.labyrinth.game.context.Context;
+import com.ccdr.labyrinth.game.context.GuildContext;
+import com.ccdr.labyrinth.game.context.LabyrinthContext;
+import com.ccdr.labyrinth.game.context.PlayersContext;
+import com.ccdr.labyrinth.game.context.PlayersContext.Subphase;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.simulation.InputSource;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Plays the turns decided by a {@link Strategy} through the same inputs as the keyboard,
+ * so the contexts apply every rule exactly as they do for a human player.
+ * Every call gives one input: it dismisses the popups, selects and confirms the change to the labyrinth,
+ * rolls the dice, follows the moves and picks the missions in the guild menu.
+ * Without a pool of workers the strategy runs on the calling thread, as
+ * {@link com.ccdr.labyrinth.simulation.HeadlessRunner} expects. With a pool, the decision is submitted to it
+ * and the calls give no input until it is ready, so the thread that drives the game never waits:
+ * a strategy that has not answered shortly after its deadline is cancelled and replaced
+ * by {@link Turn#fallback(GameSnapshot)}, or by the planned turn after the dice roll.
+ * A failing strategy is replaced in the same way.
+ * An object plays one turn at a time, but it can play the turns of many players.
+ */
+public final class ComputerPlayer implements InputSource {
+    /**
+     * Time given to a strategy when none is chosen.
+     */
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(500);
+    //how long a strategy running on the pool is still waited for after its deadline
+    private static final long GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Strategy strategy;
+    private final long budget;
+    //the pool is shared with the other computer players, it is shut down by who created it
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final Optional<ExecutorService> workers;
+    private Future<Turn> pending;
+    private long deadline;
+    private Turn fallback;
+    //state of the current turn
+    private Turn turn;
+    private boolean replanned;
+    private int navigation;
+    private List<Coordinate> lastSelection;
+    private Coordinate lastPosition;
+    private int step;
+    private int redeemed;
+
+    /**
+     * Creates a player that decides on the calling thread, within the default budget.
+     * @param strategy decides the turns
+     */
+    public ComputerPlayer(final Strategy strategy) {
+        this(strategy, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a player that decides on the calling thread.
+     * @param strategy decides the turns
+     * @param budget time given to the strategy for every decision
+     */
+    public ComputerPlayer(final Strategy strategy, final Duration budget) {
+        this(strategy, budget, Optional.empty());
+    }
+
+    /**
+     * Creates a player that decides on a pool of workers, and never blocks the thread that drives the game.
+     * @param strategy decides the turns
+     * @param budget time given to the strategy for every decision
+     * @param workers the threads that run the strategy
+     */
+    public ComputerPlayer(final Strategy strategy, final Duration budget, final ExecutorService workers) {
+        this(strategy, budget, Optional.of(workers));
+    }
+
+    private ComputerPlayer(final Strategy strategy, final Duration budget, final Optional<ExecutorService> workers) {
+        if (budget.isNegative()) {
+            throw new IllegalArgumentException("Negative budget: " + budget);
+        }
+        this.strategy = strategy;
+        this.budget = budget.toNanos();
+        this.workers = workers;
+    }
+
+    @Override
+    public void next(final GameSession session) {
+        final Context context = session.getActiveContext();
+        if (context instanceof LabyrinthContext) {
+            if (this.turn == null) {
+                this.turn = this.decide(session, false);
+                if (this.turn == null) {
+                    return;
+                }
+            }
+            this.change(session, (LabyrinthContext) context);
+        } else if (context instanceof PlayersContext) {
+            if (((PlayersContext) context).getTurnSubphase() == Subphase.DICE) {
+                session.primary();
+                return;
+            }
+            if (!this.replanned) {
+                final Turn moves = this.decide(session, true);
+                if (moves == null) {
+                    return;
+                }
+                this.turn = moves;
+                this.replanned = true;
+            }
+            this.move(session, (PlayersContext) context);
+        } else if (context instanceof GuildContext) {
+            this.redeem(session, (GuildContext) context);
+        } else {
+            //dismiss the popup of the turn, a new one starts
+            this.reset();
+            session.primary();
+        }
+    }
+
+    /**
+     * Asks the strategy, or checks if the strategy running on the pool has answered.
+     * @return the decided turn, or null if it is not ready yet
+     */
+    private Turn decide(final GameSession session, final boolean rolled) {
+        if (this.pending == null) {
+            final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), session.getBoard(),
+                session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+            final Turn planned = rolled && this.turn != null ? this.turn : Turn.fallback(view);
+            final long until = System.nanoTime() + this.budget;
+            final Supplier<Turn> task = rolled
+                ? () -> this.strategy.replan(view, planned, until)
+                : () -> this.strategy.plan(view, until);
+            this.fallback = planned;
+            this.deadline = until;
+            if (this.workers.isEmpty()) {
+                return this.orFallback(task.get());
+            }
+            this.pending = this.workers.get().submit(task::get);
+            return null;
+        }
+        final Turn answer;
+        if (this.pending.isDone()) {
+            answer = this.result(this.pending);
+        } else if (System.nanoTime() - this.deadline > GRACE_NANOS) {
+            this.pending.cancel(true);
+            answer = null;
+        } else {
+            return null;
+        }
+        this.pending = null;
+        return this.orFallback(answer);
+    }
+
+    private Turn result(final Future<Turn> done) {
+        try {
+            return done.get();
+        } catch (final ExecutionException | CancellationException e) {
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Turn orFallback(final Turn answer) {
+        return answer == null ? this.fallback : answer;
+    }
+
+    /**
+     * Selects the row, column or tile of the change and confirms it.
+     * If the selection stops moving, or takes longer than crossing the whole board, the target cannot be
+     * selected (a blocked line, a tile too far from the player) and what is selected is changed instead.
+     */
+    private void change(final GameSession session, final LabyrinthContext labyrinth) {
+        final Change change = this.turn.change();
+        final boolean rotation = change.kind() == Kind.ROTATE;
+        if (labyrinth.isRotating() != rotation) {
+            this.lastSelection = null;
+            session.secondary();
+            return;
+        }
+        final List<Coordinate> selected = labyrinth.getSelected();
+        final boolean stuck = selected.equals(this.lastSelection)
+            || this.navigation > session.getBoard().getHeight() + session.getBoard().getWidth();
+        if (stuck && !selected.isEmpty() || isTarget(selected, change)) {
+            if (change.forward()) {
+                session.primary();
+            } else {
+                session.back();
+            }
+            return;
+        }
+        //the first input may replace a selection left by the previous turn, it cannot be stuck yet
+        this.lastSelection = this.navigation == 0 ? null : List.copyOf(selected);
+        this.navigation++;
+        if (change.kind() == Kind.SHIFT_ROW) {
+            final int row = lineOf(selected, true);
+            press(session, row > change.row() ? Direction.UP : Direction.DOWN);
+        } else if (change.kind() == Kind.SHIFT_COLUMN) {
+            final int column = lineOf(selected, false);
+            press(session, column > change.column() ? Direction.LEFT : Direction.RIGHT);
+        } else if (selected.isEmpty()) {
+            //the first move starts from the top left tile around the player
+            press(session, Direction.UP);
+        } else {
+            press(session, towards(selected.get(0), change.row(), change.column()));
+        }
+    }
+
+    private void move(final GameSession session, final PlayersContext players) {
+        final Coordinate position = players.getActivePlayer().getCoord();
+        final List<Direction> path = this.turn.path();
+        //a move that left the player where it was has been refused, the rest of the path is useless
+        if (position.equals(this.lastPosition) || this.step >= path.size()) {
+            session.secondary();
+            return;
+        }
+        this.lastPosition = position;
+        press(session, path.get(this.step++));
+    }
+
+    private void redeem(final GameSession session, final GuildContext guild) {
+        final List<Item> chosen = this.turn == null ? List.of() : this.turn.missions();
+        final List<Item> available = guild.getListOfMissions();
+        while (this.redeemed < chosen.size() && indexOf(available, chosen.get(this.redeemed)) < 0) {
+            this.redeemed++;
+        }
+        if (this.redeemed == chosen.size()) {
+            session.back();
+            return;
+        }
+        final int index = indexOf(available, chosen.get(this.redeemed));
+        if (guild.getMenuIndex() < index) {
+            session.down();
+        } else if (guild.getMenuIndex() > index) {
+            session.up();
+        } else {
+            //if the player cannot afford it, the mission stays there and the next one is tried
+            session.primary();
+            this.redeemed++;
+        }
+    }
+
+    private void reset() {
+        if (this.pending != null) {
+            this.pending.cancel(true);
+            this.pending = null;
+        }
+        this.turn = null;
+        this.replanned = false;
+        this.navigation = 0;
+        this.lastSelection = null;
+        this.lastPosition = null;
+        this.step = 0;
+        this.redeemed = 0;
+    }
+
+    private static boolean isTarget(final List<Coordinate> selected, final Change change) {
+        switch (change.kind()) {
+            case SHIFT_ROW:
+                return lineOf(selected, true) == change.row();
+            case SHIFT_COLUMN:
+                return lineOf(selected, false) == change.column();
+            default:
+                return selected.size() == 1 && selected.get(0).equals(new Coordinate(change.row(), change.column()));
+        }
+    }
+
+    /**
+     * @return the index of the row (or column) made of the selected tiles, or -1 if they are not one
+     */
+    private static int lineOf(final List<Coordinate> selected, final boolean row) {
+        if (selected.size() < 2) {
+            return -1;
+        }
+        final int line = row ? selected.get(0).row() : selected.get(0).column();
+        for (final Coordinate tile : selected) {
+            if ((row ? tile.row() : tile.column()) != line) {
+                return -1;
+            }
+        }
+        return line;
+    }
+
+    private static Direction towards(final Coordinate from, final int row, final int column) {
+        if (from.row() != row) {
+            return from.row() < row ? Direction.DOWN : Direction.UP;
+        }
+        return from.column() < column ? Direction.RIGHT : Direction.LEFT;
+    }
+
+    private static int indexOf(final List<Item> missions, final Item mission) {
+        for (int i = 0; i < missions.size(); i++) {
+            if (missions.get(i) == mission) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void press(final GameSession session, final Direction direction) {
+        switch (direction) {
+            case UP:
+                session.up();
+                break;
+            case RIGHT:
+                session.right();
+                break;
+            case DOWN:
+                session.down();
+                break;
+            default:
+                session.left();
+                break;
+        }
+    }
+}
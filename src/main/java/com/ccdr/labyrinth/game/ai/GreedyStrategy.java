@@ -0,0 +1,186 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.Reachability;
+import com.ccdr.labyrinth.game.GameSnapshot.PlayerState;
+import com.ccdr.labyrinth.game.ai.Turn.Change;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * A simple strategy that looks only at the current turn, fast enough to never need its budget.
+ * Once the dice is rolled it walks towards the guild when it can complete a mission,
+ * or else towards the nearest active source of a material that the missions still ask for.
+ * When the goal cannot be reached in this turn, it stops on the reachable tile closest to it.
+ * Before rolling, it shifts the row farthest from the player, so that its own surroundings stay the same;
+ * but if a few moves would not bring it any closer to the goal, it shifts its own row or column instead,
+ * to open new passages, or if both are blocked it rotates its own tile or the next one towards the goal.
+ * The paths are found with a {@link Reachability} kept between turns, so a strategy plays for one player
+ * at a time.
+ */
+public final class GreedyStrategy implements Strategy {
+    private static final int NONE = -1;
+    //moves assumed when deciding the change, the dice is rolled after it
+    private static final int EXPECTED_MOVES = 3;
+    private final Reachability reachability = new Reachability();
+
+    @Override
+    public Turn plan(final GameSnapshot view, final long deadline) {
+        final Coordinate position = activePlayer(view).coord();
+        final List<Coordinate> goals = goals(view, activePlayer(view));
+        if (!goals.isEmpty() && this.pathTowards(view, position, EXPECTED_MOVES, goals).isEmpty()) {
+            if (!view.getBlockedRows().contains(position.row())) {
+                return Turn.of(Change.shiftRow(position.row(), true));
+            } else if (!view.getBlockedColumns().contains(position.column())) {
+                return Turn.of(Change.shiftColumn(position.column(), true));
+            }
+            return Turn.of(Change.rotate(rotationTowards(view, position, goals), true));
+        }
+        final int playerRow = position.row();
+        int farthest = NONE;
+        for (int row = 0; row < view.getHeight(); row++) {
+            if (!view.getBlockedRows().contains(row)
+                && (farthest == NONE || Math.abs(row - playerRow) > Math.abs(farthest - playerRow))) {
+                farthest = row;
+            }
+        }
+        return farthest == NONE ? Turn.fallback(view) : Turn.of(Change.shiftRow(farthest, true));
+    }
+
+    @Override
+    public Turn replan(final GameSnapshot view, final Turn planned, final long deadline) {
+        final PlayerState player = activePlayer(view);
+        return planned.withPath(this.pathTowards(view, player.coord(), view.getDiceValue(), goals(view, player)))
+            .withMissions(affordable(view.getMissions(), player.inventory()));
+    }
+
+    /**
+     * @return the guild if the player can complete a mission, or else the sources it needs
+     */
+    private static List<Coordinate> goals(final GameSnapshot view, final PlayerState player) {
+        if (affordable(view.getMissions(), player.inventory()).isEmpty() || view.getGuild().isEmpty()) {
+            return sources(view, player.inventory());
+        }
+        return List.of(view.getGuild().get());
+    }
+
+    /**
+     * Visits the tiles reachable with the dice, and picks the one closest to a goal.
+     */
+    private List<Direction> pathTowards(final GameSnapshot view, final Coordinate from, final int moves,
+        final List<Coordinate> goals) {
+        if (goals.isEmpty() || this.reachability.compute(view, from, moves) == 0) {
+            return List.of();
+        }
+        final int width = view.getWidth();
+        int best = this.reachability.getReachedCell(0);
+        int bestScore = score(from.row(), from.column(), goals);
+        //the cells are in order of distance, so ties keep the shorter path
+        for (int i = 1; i < this.reachability.getReachedCount(); i++) {
+            final int cell = this.reachability.getReachedCell(i);
+            final int score = score(cell / width, cell % width, goals);
+            if (score < bestScore) {
+                best = cell;
+                bestScore = score;
+            }
+        }
+        return this.reachability.getPath(best / width, best % width);
+    }
+
+    /**
+     * @return the tile of the player if it is closed towards the nearest goal, or else the next tile in that direction
+     */
+    private static Coordinate rotationTowards(final GameSnapshot view, final Coordinate from,
+        final List<Coordinate> goals) {
+        Coordinate nearest = goals.get(0);
+        for (final Coordinate goal : goals) {
+            if (score(from.row(), from.column(), List.of(goal)) < score(from.row(), from.column(), List.of(nearest))) {
+                nearest = goal;
+            }
+        }
+        final int rows = nearest.row() - from.row();
+        final int columns = nearest.column() - from.column();
+        final Direction towards;
+        if (Math.abs(rows) >= Math.abs(columns)) {
+            towards = rows < 0 ? Direction.UP : Direction.DOWN;
+        } else {
+            towards = columns < 0 ? Direction.LEFT : Direction.RIGHT;
+        }
+        final int row = from.row() + towards.rowStep();
+        final int column = from.column() + towards.columnStep();
+        if (!view.isOpen(from.row(), from.column(), towards)
+            || row < 0 || column < 0 || row >= view.getHeight() || column >= view.getWidth()
+            || view.getKind(row, column) == GameSnapshot.TileKind.EMPTY) {
+            return from;
+        }
+        return new Coordinate(row, column);
+    }
+
+    /**
+     * @return the distance, ignoring walls, from the tile to the nearest goal
+     */
+    private static int score(final int row, final int column, final List<Coordinate> goals) {
+        int min = Integer.MAX_VALUE;
+        for (final Coordinate goal : goals) {
+            min = Math.min(min, Math.abs(goal.row() - row) + Math.abs(goal.column() - column));
+        }
+        return min;
+    }
+
+    /**
+     * @return the missions that the inventory can pay, the ones with more points first
+     */
+    private static List<Item> affordable(final List<Item> missions, final Map<Material, Integer> inventory) {
+        final Map<Material, Integer> left = new EnumMap<>(Material.class);
+        left.putAll(inventory);
+        final List<Item> sorted = new ArrayList<>(missions);
+        sorted.sort(Comparator.comparingInt(Item::getPoints).reversed());
+        final List<Item> chosen = new ArrayList<>();
+        for (final Item mission : sorted) {
+            final int owned = left.getOrDefault(mission.getMaterial(), 0);
+            if (owned >= mission.getQuantity()) {
+                left.put(mission.getMaterial(), owned - mission.getQuantity());
+                chosen.add(mission);
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * @return the active sources of the materials that the missions ask for more than the player has,
+     * or of every material if the player already has enough of all of them
+     */
+    private static List<Coordinate> sources(final GameSnapshot view, final Map<Material, Integer> inventory) {
+        final Map<Material, Integer> missing = new EnumMap<>(Material.class);
+        for (final Item mission : view.getMissions()) {
+            missing.merge(mission.getMaterial(), mission.getQuantity(), Integer::sum);
+        }
+        missing.replaceAll((material, asked) -> asked - inventory.getOrDefault(material, 0));
+        missing.values().removeIf(asked -> asked <= 0);
+        final List<Coordinate> wanted = new ArrayList<>();
+        final List<Coordinate> any = new ArrayList<>();
+        for (int row = 0; row < view.getHeight(); row++) {
+            for (int column = 0; column < view.getWidth(); column++) {
+                if (view.getKind(row, column) == GameSnapshot.TileKind.SOURCE && view.isActiveSource(row, column)) {
+                    any.add(new Coordinate(row, column));
+                    if (missing.containsKey(view.getMaterial(row, column).orElseThrow())) {
+                        wanted.add(new Coordinate(row, column));
+                    }
+                }
+            }
+        }
+        return missing.isEmpty() ? any : wanted;
+    }
+
+    private static PlayerState activePlayer(final GameSnapshot view) {
+        return view.getPlayers().get(view.getActivePlayerIndex());
+    }
+}
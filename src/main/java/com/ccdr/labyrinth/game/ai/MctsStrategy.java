@@ -0,0 +1,512 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.ZobristHash;
+import com.ccdr.labyrinth.game.ai.Turn.Change;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * A strategy that plays many random games from the current one, with a Monte Carlo tree search,
+ * and picks the turn that led to the best of them.
+ * The tree has three levels for every turn: the change to the labyrinth, the value of the dice,
+ * which is drawn at random and not chosen, and the tile where the player stops.
+ * Only the tiles worth stopping on are tried: the ones with materials, the guild, the one closest to the goal
+ * of {@link GreedyStrategy} and the tile of the player.
+ * Below the tree, a playout goes on for a few more turns of the same player, shifting random lines
+ * and mostly walking towards its goal, then the game is valued by its points and the missions that its
+ * materials can pay.
+ * The games are played on a {@link SearchState}, taking back every playout, so nothing is
+ * allocated but the nodes of the tree.
+ * Given a {@link ForkJoinPool}, every thread of the pool starts playouts from the root on its own copy
+ * of the state, and all of them grow the same tree: the statistics of the nodes are atomic counters,
+ * and a child counts its visit as soon as it is chosen, as a virtual loss that turns the other threads
+ * towards different children until the playout ends.
+ * The search stops at the deadline, or earlier after a given number of playouts.
+ * Every search logs how many playouts it played and how fast, at level {@code FINE}.
+ * A strategy searches for one turn at a time, but it can play the turns of many players: what a plan
+ * remembers is used only by the replan of the same turn, and forgotten by the next plan.
+ */
+public final class MctsStrategy implements Strategy {
+    /**
+     * No limit to the playouts, the search stops only at the deadline.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    //weight of the less visited children in the choice, the rewards go from 0 to 1
+    private static final double EXPLORATION = Math.sqrt(2);
+    //own turns played at random after the ones in the tree
+    private static final int ROLLOUT_TURNS = 2;
+    //chance that a playout stops on a random tile instead of walking towards its goal
+    private static final double RANDOM_MOVE = 0.2;
+    //playouts that a thread takes at once, between two readings of the clock
+    private static final int CLOCK_PERIOD = 16;
+    //the scores are sums of rewards in fixed point, to be added atomically
+    private static final double SCORE_UNIT = 1 << 20;
+    private static final double HALF = 0.5;
+    //where to stop after the planned change, for the replan of the same turn
+    private static final int TABLE_BUCKETS = 1 << 10;
+    //a tile to stop on is remembered only if chosen by enough playouts, and by this share of its dice value
+    private static final int MIN_REUSED_VISITS = 16;
+    private static final double REUSED_SHARE = 0.5;
+    //the dice is hashed as a state that no cell can be in
+    private static final long DICE_STATE = Long.MAX_VALUE;
+    private static final Logger LOGGER = Logger.getLogger(MctsStrategy.class.getName());
+
+    private final int maxPlayouts;
+    private final SplittableRandom random;
+    //the pool is shared with who created it, and shut down by them
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final Optional<ForkJoinPool> pool;
+    private final LongAdder playouts = new LongAdder();
+    private final TranspositionTable table = new TranspositionTable(TABLE_BUCKETS);
+    private volatile double playoutsPerSecond;
+
+    /**
+     * Creates a strategy that searches on the calling thread until the deadline.
+     */
+    public MctsStrategy() {
+        this(Optional.empty(), UNLIMITED, System.nanoTime());
+    }
+
+    /**
+     * Creates a strategy that searches with all the threads of a pool until the deadline.
+     * @param pool the threads of the search, it may also run the calls to the strategy
+     */
+    public MctsStrategy(final ForkJoinPool pool) {
+        this(Optional.of(pool), UNLIMITED, System.nanoTime());
+    }
+
+    /**
+     * Creates a strategy that searches on the calling thread and stops after some playouts,
+     * so that with the same seed it always decides the same.
+     * @param maxPlayouts the playouts of every decision, if the deadline is not reached first
+     * @param seed the seed of the random playouts
+     */
+    public MctsStrategy(final int maxPlayouts, final long seed) {
+        this(Optional.empty(), maxPlayouts, seed);
+    }
+
+    private MctsStrategy(final Optional<ForkJoinPool> pool, final int maxPlayouts, final long seed) {
+        if (maxPlayouts <= 0) {
+            throw new IllegalArgumentException("Playouts must be positive: " + maxPlayouts);
+        }
+        this.pool = pool;
+        this.maxPlayouts = maxPlayouts;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return how many games have been played by the searches so far
+     */
+    public long getPlayouts() {
+        return this.playouts.sum();
+    }
+
+    /**
+     * @return how many games per second the last search played, with all its threads
+     */
+    public double getPlayoutsPerSecond() {
+        return this.playoutsPerSecond;
+    }
+
+    @Override
+    public Turn plan(final GameSnapshot view, final long deadline) {
+        //the key of a result has neither the materials nor the missions nor the player, which change between turns
+        this.table.clear();
+        final SearchState state = new SearchState(view);
+        //changes that lead to the same position are the same child, so their playouts are not split
+        final Map<Long, Change> distinct = new LinkedHashMap<>();
+        for (final Change change : changes(state)) {
+            final int mark = state.mark();
+            state.apply(change);
+            distinct.putIfAbsent(state.hash(), change);
+            state.undo(mark);
+        }
+        if (distinct.isEmpty()) {
+            return Turn.fallback(view);
+        }
+        final List<Change> changes = List.copyOf(distinct.values());
+        final long[] hashes = distinct.keySet().stream().mapToLong(Long::longValue).toArray();
+        final int[] lines = freeLines(state);
+        final double base = state.evaluate();
+        final int scale = state.maxMissionPoints();
+        final int faces = state.getMaxDice();
+        final Node root = new Node(new int[changes.size()], faces);
+        this.search(state, deadline, (worker, random) -> {
+            final int mark = worker.mark();
+            final int child = root.select();
+            worker.apply(changes.get(child));
+            final int dice = random.nextInt(faces) + 1;
+            final int reached = worker.reach(dice);
+            final int outcome = child * faces + dice - 1;
+            Node moves = root.getBelow(outcome);
+            if (moves == null) {
+                moves = root.setBelow(outcome, moves(worker, reached));
+            }
+            final double reward = this.descend(worker, random, moves, lines, base, scale);
+            worker.undo(mark);
+            root.update(child, reward);
+        });
+        //where to stop after the chosen change is already known for the values of the dice tried enough
+        final int best = root.mostVisited();
+        for (int dice = 1; dice <= faces; dice++) {
+            final Node moves = root.getBelow(best * faces + dice - 1);
+            if (moves != null) {
+                this.remember(hashes[best] ^ diceKey(dice), moves);
+            }
+        }
+        return Turn.of(changes.get(best));
+    }
+
+    @Override
+    public Turn replan(final GameSnapshot view, final Turn planned, final long deadline) {
+        final SearchState state = new SearchState(view);
+        final int dice = view.getDiceValue();
+        if (dice <= 0) {
+            return planned.withPath(List.of()).withMissions(List.of());
+        }
+        final long position = state.hash() ^ diceKey(dice);
+        final int reached = state.reach(dice);
+        final int known = (int) this.table.get(position, MIN_REUSED_VISITS, SearchState.NONE);
+        final int target;
+        if (known != SearchState.NONE && state.isReached(known)) {
+            target = known;
+        } else {
+            final int[] lines = freeLines(state);
+            final double base = state.evaluate();
+            final int scale = state.maxMissionPoints();
+            final Node root = moves(state, reached);
+            this.search(state, deadline, (worker, random) -> {
+                final int mark = worker.mark();
+                worker.reach(dice);
+                this.descend(worker, random, root, lines, base, scale);
+                worker.undo(mark);
+            });
+            target = root.cells[root.mostVisited()];
+        }
+        state.reach(dice);
+        final List<Direction> path = state.pathTo(target);
+        state.moveTo(target);
+        return planned.withPath(path).withMissions(state.completedMissions());
+    }
+
+    /**
+     * Stores in the table where to stop in a position, if the search has made a clear choice: the playouts
+     * of a search go up and down with its budget and the speed of the machine, so the most visited tile
+     * must have been chosen by a share of the playouts through the node, and not by chance among a few.
+     * Its visits are its priority in the table.
+     */
+    private void remember(final long position, final Node moves) {
+        final int best = moves.mostVisited();
+        final int visits = moves.visits.get(best);
+        if (visits >= MIN_REUSED_VISITS && visits >= REUSED_SHARE * moves.total.get()) {
+            this.table.put(position, moves.cells[best], visits);
+        }
+    }
+
+    /**
+     * Repeats a playout until the deadline or the last playout, on the threads of the pool if there is one.
+     * The state is left as it was.
+     */
+    private void search(final SearchState state, final long deadline, final Playout playout) {
+        final long start = System.nanoTime();
+        final long before = this.playouts.sum();
+        final AtomicInteger claimed = new AtomicInteger();
+        if (this.pool.isEmpty()) {
+            this.work(state, this.random, deadline, claimed, playout);
+        } else {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < this.pool.get().getParallelism(); thread++) {
+                final SearchState own = thread == 0 ? state : state.copy();
+                final SplittableRandom random = this.random.split();
+                tasks.add(ForkJoinTask.adapt(() -> this.work(own, random, deadline, claimed, playout)));
+            }
+            if (ForkJoinTask.getPool() == this.pool.get()) {
+                //called by a thread of the pool, that takes part in the search
+                ForkJoinTask.invokeAll(tasks);
+            } else {
+                tasks.forEach(this.pool.get()::execute);
+                tasks.forEach(ForkJoinTask::join);
+            }
+        }
+        final long elapsed = Math.max(1, System.nanoTime() - start);
+        final long played = this.playouts.sum() - before;
+        final double rate = (double) played * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        this.playoutsPerSecond = rate;
+        LOGGER.fine(() -> String.format("%d playouts in %d ms, %.0f per second", played,
+            TimeUnit.NANOSECONDS.toMillis(elapsed), rate));
+    }
+
+    private void work(final SearchState state, final SplittableRandom random, final long deadline,
+        final AtomicInteger claimed, final Playout playout) {
+        while (System.nanoTime() - deadline <= 0) {
+            final int first = claimed.getAndAdd(CLOCK_PERIOD);
+            final int batch = Math.min(CLOCK_PERIOD, this.maxPlayouts - first);
+            if (first < 0 || batch <= 0) {
+                return;
+            }
+            for (int i = 0; i < batch; i++) {
+                playout.play(state, random);
+            }
+            this.playouts.add(batch);
+        }
+    }
+
+    /**
+     * Plays a game from a node of moves, the cells of the node must have just been reached.
+     * @return the reward of the game, from 0 to 1
+     */
+    private double descend(final SearchState state, final SplittableRandom random, final Node node,
+        final int[] lines, final double base, final int scale) {
+        final int child = node.select();
+        state.moveTo(node.cells[child]);
+        for (int turn = 0; turn < ROLLOUT_TURNS; turn++) {
+            rollout(state, random, lines);
+        }
+        final double gain = state.evaluate() - base;
+        final double reward = HALF + HALF * gain / (Math.abs(gain) + scale);
+        node.update(child, reward);
+        return reward;
+    }
+
+    /**
+     * Plays one turn at random: a random shift, a random dice and mostly a step towards the goal.
+     */
+    private static void rollout(final SearchState state, final SplittableRandom random, final int[] lines) {
+        if (lines.length > 0) {
+            final int line = lines[random.nextInt(lines.length)];
+            if (line < state.getHeight()) {
+                state.shiftRow(line, random.nextBoolean());
+            } else {
+                state.shiftColumn(line - state.getHeight(), random.nextBoolean());
+            }
+        }
+        final int reached = state.reach(random.nextInt(state.getMaxDice()) + 1);
+        if (random.nextDouble() < RANDOM_MOVE) {
+            state.moveTo(state.reachedCell(random.nextInt(reached)));
+        } else {
+            state.moveTo(closest(state, reached, state.goal()));
+        }
+    }
+
+    private static long diceKey(final int dice) {
+        return ZobristHash.key(dice, DICE_STATE);
+    }
+
+    /**
+     * @return the changes that the player can make: shifting every free line both ways and rotating
+     * the tiles around it, once if both rotations give the same tile
+     */
+    private static List<Change> changes(final SearchState state) {
+        final List<Change> changes = new ArrayList<>();
+        for (int row = 0; row < state.getHeight(); row++) {
+            if (!state.isRowBlocked(row)) {
+                changes.add(Change.shiftRow(row, true));
+                changes.add(Change.shiftRow(row, false));
+            }
+        }
+        for (int column = 0; column < state.getWidth(); column++) {
+            if (!state.isColumnBlocked(column)) {
+                changes.add(Change.shiftColumn(column, true));
+                changes.add(Change.shiftColumn(column, false));
+            }
+        }
+        final int width = state.getWidth();
+        final int position = state.getPosition();
+        for (int row = position / width - 1; row <= position / width + 1; row++) {
+            for (int column = position % width - 1; column <= position % width + 1; column++) {
+                final int cell = row * width + column;
+                if (row < 0 || column < 0 || row >= state.getHeight() || column >= width
+                    || !state.hasTile(cell) || cell == state.getGuild()) {
+                    continue;
+                }
+                final int pattern = state.getPattern(cell);
+                if (pattern == Direction.ALL_OPEN) {
+                    continue;
+                }
+                final Coordinate tile = new Coordinate(row, column);
+                changes.add(Change.rotate(tile, true));
+                //a half turn that leaves the tile as it is means that both rotations are the same
+                if (rotatedTwice(pattern) != pattern) {
+                    changes.add(Change.rotate(tile, false));
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static int rotatedTwice(final int pattern) {
+        return Direction.rotateMask(Direction.rotateMask(pattern, true), true);
+    }
+
+    /**
+     * @return the rows that can be shifted, then the columns after the height
+     */
+    private static int[] freeLines(final SearchState state) {
+        final List<Integer> lines = new ArrayList<>();
+        for (int row = 0; row < state.getHeight(); row++) {
+            if (!state.isRowBlocked(row)) {
+                lines.add(row);
+            }
+        }
+        for (int column = 0; column < state.getWidth(); column++) {
+            if (!state.isColumnBlocked(column)) {
+                lines.add(state.getHeight() + column);
+            }
+        }
+        return lines.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return the node of the cells worth stopping on, among the ones just reached
+     */
+    private static Node moves(final SearchState state, final int reached) {
+        final int[] cells = new int[reached + 1];
+        int count = 0;
+        for (int i = 0; i < reached; i++) {
+            final int cell = state.reachedCell(i);
+            if (i == 0 || cell == state.getGuild() || state.hasMaterials(cell)) {
+                cells[count++] = cell;
+            }
+        }
+        final int closest = closest(state, reached, state.goal());
+        if (!contains(cells, count, closest)) {
+            cells[count++] = closest;
+        }
+        return new Node(Arrays.copyOf(cells, count));
+    }
+
+    private static boolean contains(final int[] cells, final int count, final int cell) {
+        for (int i = 0; i < count; i++) {
+            if (cells[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the reached cell closest to the goal, the nearest to the player among the ties
+     */
+    private static int closest(final SearchState state, final int reached, final int goal) {
+        int best = state.reachedCell(0);
+        if (goal == SearchState.NONE) {
+            return best;
+        }
+        int bestDistance = state.distance(best, goal);
+        for (int i = 1; i < reached; i++) {
+            final int distance = state.distance(state.reachedCell(i), goal);
+            if (distance < bestDistance) {
+                best = state.reachedCell(i);
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One playout from the root of a search, on the state of a thread.
+     */
+    @FunctionalInterface
+    private interface Playout {
+        void play(SearchState state, SplittableRandom random);
+    }
+
+    /**
+     * A choice in the tree, with the statistics of its children, shared by the threads of the search.
+     */
+    private static final class Node {
+        //the cells where the player stops, when the children are moves
+        private final int[] cells;
+        private final AtomicIntegerArray visits;
+        private final AtomicLongArray scores;
+        private final AtomicInteger total = new AtomicInteger();
+        //the choices after every child and every value of the dice, made by the first thread that gets there
+        private final AtomicReferenceArray<Node> below;
+
+        Node(final int[] cells) {
+            this(cells, 0);
+        }
+
+        Node(final int[] cells, final int outcomes) {
+            this.cells = cells;
+            this.visits = new AtomicIntegerArray(cells.length);
+            this.scores = new AtomicLongArray(cells.length);
+            this.below = new AtomicReferenceArray<>(cells.length * outcomes);
+        }
+
+        /**
+         * Picks the first child never visited, or else the one with the best upper confidence bound,
+         * and counts its visit, without a reward until {@link #update(int, double)}.
+         * @return the child
+         */
+        int select() {
+            final double logTotal = Math.log(Math.max(1, this.total.get()));
+            int best = 0;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < this.cells.length; i++) {
+                final int visited = this.visits.get(i);
+                if (visited == 0) {
+                    best = i;
+                    break;
+                }
+                final double bound = this.scores.get(i) / SCORE_UNIT / visited
+                    + EXPLORATION * Math.sqrt(logTotal / visited);
+                if (bound > bestBound) {
+                    best = i;
+                    bestBound = bound;
+                }
+            }
+            this.visits.incrementAndGet(best);
+            this.total.incrementAndGet();
+            return best;
+        }
+
+        /**
+         * Adds the reward of a playout through a child, its visit was counted when it was selected.
+         */
+        void update(final int child, final double reward) {
+            this.scores.addAndGet(child, Math.round(reward * SCORE_UNIT));
+        }
+
+        int mostVisited() {
+            int best = 0;
+            for (int i = 1; i < this.cells.length; i++) {
+                if (this.visits.get(i) > this.visits.get(best)) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        Node getBelow(final int outcome) {
+            return this.below.get(outcome);
+        }
+
+        /**
+         * @return the node set, or the one set first by another thread
+         */
+        Node setBelow(final int outcome, final Node node) {
+            return this.below.compareAndSet(outcome, null, node) ? node : this.below.get(outcome);
+        }
+    }
+}
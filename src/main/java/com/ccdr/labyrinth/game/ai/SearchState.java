@@ -0,0 +1,606 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.ZobristHash;
+import com.ccdr.labyrinth.game.GameSnapshot.PlayerState;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * A copy of the game made to be searched: the tiles are plain arrays indexed by cell (row * width + column)
+ * and every change is written in a journal, so that a search can play a whole turn and then take it back
+ * with {@link #undo(int)}, in the time it took to play it, instead of copying the board again.
+ * Only the active player is simulated. The other players never move, sources that are recharging stay empty,
+ * and the points given by the first visit to the guild are not counted: a search looks a few turns ahead,
+ * where these are details.
+ * The tiles are hashed as by the {@link ZobristHash} of the board, from the codes of their states copied
+ * from the snapshot, and the hash follows every change and every undo, in the time of the change.
+ * A state is used by one thread at a time, {@link #copy()} gives another one.
+ */
+final class SearchState {
+    /**
+     * No cell, no material.
+     */
+    static final int NONE = -1;
+    private static final Material[] MATERIALS = Material.values();
+    //share of the points of a mission counted for the materials it needs, the rest comes when it is completed
+    private static final double MATERIAL_SHARE = 0.5;
+    //share of the points of an affordable mission counted for being next to the guild
+    private static final double GUILD_SHARE = 0.25;
+    //journal operations, every entry is an operation and two arguments
+    private static final int SHIFT_ROW = 0;
+    private static final int SHIFT_COLUMN = 1;
+    private static final int ROTATE = 2;
+    private static final int COLLECT = 3;
+    private static final int MOVE = 4;
+    private static final int REDEEM = 5;
+    private static final int ENTRY = 3;
+    private static final int INITIAL_JOURNAL = 256;
+
+    private final int height, width;
+    private final byte[] patterns;
+    private final byte[] materials;
+    private final int[] amounts;
+    //codes of the states of the tiles, see ZobristHash.state, and the hash of all of them
+    private final long[] states;
+    private long tilesHash;
+    private final boolean[] blockedRows, blockedColumns;
+    private final int[] sourceCells;
+    private final int guild;
+    private final int maxDice;
+    //the active player
+    private int position;
+    private int points;
+    private final int[] inventory;
+    //the missions, in the order of the snapshot
+    private final List<Item> missionItems;
+    private final int[] missionMaterial, missionQuantity, missionPoints;
+    private final boolean[] done;
+    private final int[] byPoints;
+    private int[] journal = new int[INITIAL_JOURNAL];
+    private int top;
+    //breadth-first visit, the arrays are valid only for the cells seen in the current visit
+    private final int[] queue;
+    private final int[] seenIn;
+    private final int[] arrivedWith;
+    private int visit;
+    private int reached;
+    //scratch space of the evaluation
+    private final int[] demand, demandPoints;
+
+    /**
+     * Copies the game.
+     * @param view the game, the active player is the simulated one.
+     */
+    SearchState(final GameSnapshot view) {
+        this.height = view.getHeight();
+        this.width = view.getWidth();
+        final int cells = this.height * this.width;
+        this.patterns = new byte[cells];
+        this.materials = new byte[cells];
+        this.amounts = new int[cells];
+        this.states = new long[cells];
+        final List<Integer> sources = new ArrayList<>();
+        for (int row = 0; row < this.height; row++) {
+            for (int column = 0; column < this.width; column++) {
+                final int cell = row * this.width + column;
+                this.patterns[cell] = (byte) view.getPattern(row, column);
+                this.materials[cell] = view.getMaterial(row, column).map(Material::ordinal).orElse(NONE).byteValue();
+                this.amounts[cell] = view.getAmount(row, column);
+                this.states[cell] = view.getTileState(row, column);
+                this.tilesHash ^= this.key(cell);
+                if (view.getKind(row, column) == GameSnapshot.TileKind.SOURCE) {
+                    sources.add(cell);
+                }
+            }
+        }
+        this.sourceCells = sources.stream().mapToInt(Integer::intValue).toArray();
+        this.blockedRows = new boolean[this.height];
+        this.blockedColumns = new boolean[this.width];
+        view.getBlockedRows().forEach(row -> this.blockedRows[row] = true);
+        view.getBlockedColumns().forEach(column -> this.blockedColumns[column] = true);
+        this.guild = view.getGuild().map(tile -> tile.row() * this.width + tile.column()).orElse(NONE);
+        this.maxDice = Math.max(1, view.getMaxDiceValue());
+        final PlayerState player = view.getPlayers().get(view.getActivePlayerIndex());
+        this.position = player.coord().row() * this.width + player.coord().column();
+        this.points = player.points();
+        this.inventory = new int[MATERIALS.length];
+        player.inventory().forEach((material, quantity) -> this.inventory[material.ordinal()] = quantity);
+        this.missionItems = view.getMissions();
+        final int missions = this.missionItems.size();
+        this.missionMaterial = new int[missions];
+        this.missionQuantity = new int[missions];
+        this.missionPoints = new int[missions];
+        this.done = new boolean[missions];
+        for (int i = 0; i < missions; i++) {
+            this.missionMaterial[i] = this.missionItems.get(i).getMaterial().ordinal();
+            this.missionQuantity[i] = this.missionItems.get(i).getQuantity();
+            this.missionPoints[i] = this.missionItems.get(i).getPoints();
+        }
+        this.byPoints = IntStream.range(0, missions).boxed()
+            .sorted((first, second) -> Integer.compare(this.missionPoints[second], this.missionPoints[first]))
+            .mapToInt(Integer::intValue).toArray();
+        //the second half holds the path of a move
+        this.queue = new int[2 * cells];
+        this.seenIn = new int[cells];
+        this.arrivedWith = new int[cells];
+        this.demand = new int[MATERIALS.length];
+        this.demandPoints = new int[MATERIALS.length];
+    }
+
+    private SearchState(final SearchState other) {
+        this.height = other.height;
+        this.width = other.width;
+        this.patterns = other.patterns.clone();
+        this.materials = other.materials.clone();
+        this.amounts = other.amounts.clone();
+        this.states = other.states.clone();
+        this.tilesHash = other.tilesHash;
+        this.blockedRows = other.blockedRows;
+        this.blockedColumns = other.blockedColumns;
+        this.sourceCells = other.sourceCells.clone();
+        this.guild = other.guild;
+        this.maxDice = other.maxDice;
+        this.position = other.position;
+        this.points = other.points;
+        this.inventory = other.inventory.clone();
+        this.missionItems = other.missionItems;
+        this.missionMaterial = other.missionMaterial;
+        this.missionQuantity = other.missionQuantity;
+        this.missionPoints = other.missionPoints;
+        this.done = other.done.clone();
+        this.byPoints = other.byPoints;
+        this.queue = new int[other.queue.length];
+        this.seenIn = new int[other.seenIn.length];
+        this.arrivedWith = new int[other.arrivedWith.length];
+        this.demand = new int[MATERIALS.length];
+        this.demandPoints = new int[MATERIALS.length];
+    }
+
+    /**
+     * @return an independent copy of this state, with an empty journal.
+     */
+    SearchState copy() {
+        return new SearchState(this);
+    }
+
+    int getHeight() {
+        return this.height;
+    }
+
+    int getWidth() {
+        return this.width;
+    }
+
+    int getMaxDice() {
+        return this.maxDice;
+    }
+
+    int getPosition() {
+        return this.position;
+    }
+
+    int getPoints() {
+        return this.points;
+    }
+
+    boolean isRowBlocked(final int row) {
+        return this.blockedRows[row];
+    }
+
+    boolean isColumnBlocked(final int column) {
+        return this.blockedColumns[column];
+    }
+
+    /**
+     * @return the cell of the guild, or {@link #NONE} on a board without one.
+     */
+    int getGuild() {
+        return this.guild;
+    }
+
+    int getPattern(final int cell) {
+        return this.patterns[cell];
+    }
+
+    /**
+     * @return true if entering the cell gives materials.
+     */
+    boolean hasMaterials(final int cell) {
+        return this.amounts[cell] > 0 && this.materials[cell] != NONE;
+    }
+
+    /**
+     * @return true if the cell holds a tile.
+     */
+    boolean hasTile(final int cell) {
+        //every generated tile has at least one passage, empty cells have none
+        return this.patterns[cell] != 0;
+    }
+
+    /**
+     * Hashes the tiles and the position of the player with the keys of {@link ZobristHash}.
+     * Before any change it is the hash of the board with {@link ZobristHash#withPlayers(List)} of the active
+     * player alone.
+     * @return the same hash for the same tiles and position, however they were reached.
+     */
+    long hash() {
+        return this.tilesHash ^ ZobristHash.playerKey(0, this.position);
+    }
+
+    /**
+     * @return true if the cell has been reached by the last {@link #reach(int)}.
+     */
+    boolean isReached(final int cell) {
+        return cell >= 0 && cell < this.seenIn.length && this.seenIn[cell] == this.visit;
+    }
+
+    /**
+     * @return the position in the journal, to go back to it later.
+     */
+    int mark() {
+        return this.top;
+    }
+
+    /**
+     * Takes back every change made after the mark, in reverse order.
+     * @param mark a value given by {@link #mark()}.
+     */
+    void undo(final int mark) {
+        while (this.top > mark) {
+            this.top -= ENTRY;
+            final int first = this.journal[this.top + 1];
+            final int second = this.journal[this.top + 2];
+            switch (this.journal[this.top]) {
+                case SHIFT_ROW:
+                    this.shiftLine(first * this.width, 1, this.width, second == 0);
+                    break;
+                case SHIFT_COLUMN:
+                    this.shiftLine(first, this.width, this.height, second == 0);
+                    break;
+                case ROTATE:
+                    this.rotateTile(first, second == 0);
+                    break;
+                case COLLECT:
+                    this.setAmount(first, second);
+                    this.inventory[this.materials[first]] -= second;
+                    break;
+                case MOVE:
+                    this.position = first;
+                    break;
+                default:
+                    this.done[first] = false;
+                    this.inventory[this.missionMaterial[first]] += this.missionQuantity[first];
+                    this.points -= this.missionPoints[first];
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Applies a change to the labyrinth.
+     * @param change a shift or a rotation.
+     */
+    void apply(final Turn.Change change) {
+        switch (change.kind()) {
+            case SHIFT_ROW:
+                this.shiftRow(change.row(), change.forward());
+                break;
+            case SHIFT_COLUMN:
+                this.shiftColumn(change.column(), change.forward());
+                break;
+            default:
+                this.rotate(change.row() * this.width + change.column(), change.forward());
+                break;
+        }
+    }
+
+    void shiftRow(final int row, final boolean forward) {
+        this.shiftLine(row * this.width, 1, this.width, forward);
+        this.log(SHIFT_ROW, row, forward ? 1 : 0);
+    }
+
+    void shiftColumn(final int column, final boolean forward) {
+        this.shiftLine(column, this.width, this.height, forward);
+        this.log(SHIFT_COLUMN, column, forward ? 1 : 0);
+    }
+
+    void rotate(final int cell, final boolean clockwise) {
+        this.rotateTile(cell, clockwise);
+        this.log(ROTATE, cell, clockwise ? 1 : 0);
+    }
+
+    /**
+     * Visits the cells that the player can reach with the given moves, in order of distance.
+     * @param moves the value of the dice.
+     * @return how many cells are reached, the position of the player included.
+     */
+    int reach(final int moves) {
+        this.visit++;
+        int count = 0;
+        this.seenIn[this.position] = this.visit;
+        this.arrivedWith[this.position] = NONE;
+        this.queue[count++] = this.position;
+        int levelEnd = count;
+        int distance = 0;
+        for (int head = 0; head < count; head++) {
+            if (head == levelEnd) {
+                distance++;
+                levelEnd = count;
+            }
+            if (distance == moves) {
+                break;
+            }
+            final int cell = this.queue[head];
+            final int row = cell / this.width;
+            final int column = cell % this.width;
+            for (int d = 0; d < Direction.COUNT; d++) {
+                final Direction direction = Direction.of(d);
+                final int nextRow = row + direction.rowStep();
+                final int nextColumn = column + direction.columnStep();
+                if (nextRow < 0 || nextColumn < 0 || nextRow >= this.height || nextColumn >= this.width) {
+                    continue;
+                }
+                final int next = nextRow * this.width + nextColumn;
+                if (this.seenIn[next] != this.visit && (this.patterns[cell] & direction.mask()) != 0
+                    && (this.patterns[next] & direction.opposite().mask()) != 0) {
+                    this.seenIn[next] = this.visit;
+                    this.arrivedWith[next] = d;
+                    this.queue[count++] = next;
+                }
+            }
+        }
+        this.reached = count;
+        return count;
+    }
+
+    /**
+     * @param index from 0 to the value returned by the last {@link #reach(int)} excluded.
+     * @return a reached cell.
+     */
+    int reachedCell(final int index) {
+        return this.queue[index];
+    }
+
+    /**
+     * Walks to a cell reached by the last {@link #reach(int)} on a shortest path, collecting the materials
+     * of every tile entered on the way, and completes the missions it can if the cell is the guild.
+     * @param target the cell to reach.
+     */
+    void moveTo(final int target) {
+        //the path is walked backwards to find it, then forwards to enter the tiles in order
+        int length = 0;
+        for (int cell = target; cell != this.position; cell = this.previous(cell)) {
+            this.queue[this.reached + length++] = cell;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            this.enter(this.queue[this.reached + i]);
+        }
+        this.log(MOVE, this.position, 0);
+        this.position = target;
+        if (target == this.guild) {
+            for (final int mission : this.byPoints) {
+                if (this.affordable(mission)) {
+                    this.done[mission] = true;
+                    this.inventory[this.missionMaterial[mission]] -= this.missionQuantity[mission];
+                    this.points += this.missionPoints[mission];
+                    this.log(REDEEM, mission, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param target a cell reached by the last {@link #reach(int)}.
+     * @return the moves of a shortest path from the player to the cell.
+     */
+    List<Direction> pathTo(final int target) {
+        final List<Direction> path = new ArrayList<>();
+        for (int cell = target; cell != this.position; cell = this.previous(cell)) {
+            path.add(Direction.of(this.arrivedWith[cell]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return the missions completed since this state was copied from the game, the ones with more points first.
+     */
+    List<Item> completedMissions() {
+        final List<Item> completed = new ArrayList<>();
+        for (final int mission : this.byPoints) {
+            if (this.done[mission]) {
+                completed.add(this.missionItems.get(mission));
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * The goal of the player: the guild if it can complete a mission, or else the nearest source
+     * that still has materials asked by the missions.
+     * @return the cell of the goal, or {@link #NONE} if there is nothing left to do.
+     */
+    int goal() {
+        this.countDemand();
+        for (int mission = 0; mission < this.done.length; mission++) {
+            if (this.affordable(mission)) {
+                return this.guild;
+            }
+        }
+        int nearest = NONE;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (final int source : this.sourceCells) {
+            final int material = this.materials[source];
+            if (this.amounts[source] > 0 && material != NONE && this.demand[material] > this.inventory[material]) {
+                final int distance = this.distance(this.position, source);
+                if (distance < nearestDistance) {
+                    nearest = source;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * @return the distance between two cells, ignoring the walls.
+     */
+    int distance(final int from, final int to) {
+        return Math.abs(from / this.width - to / this.width) + Math.abs(from % this.width - to % this.width);
+    }
+
+    /**
+     * Values the position of the player: its points, plus a share of the points of the missions
+     * that its materials can pay, plus a smaller share for being close to the guild when it can complete one.
+     * @return the value, in points.
+     */
+    double evaluate() {
+        this.countDemand();
+        double value = this.points;
+        int affordable = 0;
+        for (int material = 0; material < MATERIALS.length; material++) {
+            if (this.demand[material] > 0) {
+                value += MATERIAL_SHARE * Math.min(this.inventory[material], this.demand[material])
+                    * this.demandPoints[material] / this.demand[material];
+            }
+        }
+        for (int mission = 0; mission < this.done.length; mission++) {
+            if (this.affordable(mission)) {
+                affordable = Math.max(affordable, this.missionPoints[mission]);
+            }
+        }
+        if (this.guild == NONE) {
+            return value;
+        }
+        final double closeness = 1 - (double) this.distance(this.position, this.guild) / (this.height + this.width);
+        return value + GUILD_SHARE * affordable * closeness;
+    }
+
+    /**
+     * @return the most points that a single mission gives, at least one.
+     */
+    int maxMissionPoints() {
+        return Math.max(1, Arrays.stream(this.missionPoints).max().orElse(1));
+    }
+
+    private void countDemand() {
+        Arrays.fill(this.demand, 0);
+        Arrays.fill(this.demandPoints, 0);
+        for (int mission = 0; mission < this.done.length; mission++) {
+            if (!this.done[mission]) {
+                this.demand[this.missionMaterial[mission]] += this.missionQuantity[mission];
+                this.demandPoints[this.missionMaterial[mission]] += this.missionPoints[mission];
+            }
+        }
+    }
+
+    private boolean affordable(final int mission) {
+        return !this.done[mission] && this.inventory[this.missionMaterial[mission]] >= this.missionQuantity[mission];
+    }
+
+    private int previous(final int cell) {
+        final Direction arrived = Direction.of(this.arrivedWith[cell]);
+        return cell - arrived.rowStep() * this.width - arrived.columnStep();
+    }
+
+    private void enter(final int cell) {
+        final int amount = this.amounts[cell];
+        if (this.hasMaterials(cell)) {
+            this.log(COLLECT, cell, amount);
+            this.setAmount(cell, 0);
+            this.inventory[this.materials[cell]] += amount;
+        }
+    }
+
+    /**
+     * @return the key of the tile in the cell, 0 for an empty cell.
+     */
+    private long key(final int cell) {
+        return this.states[cell] == 0 ? 0 : ZobristHash.key(cell, this.states[cell]);
+    }
+
+    private void setAmount(final int cell, final int amount) {
+        this.tilesHash ^= this.key(cell);
+        this.amounts[cell] = amount;
+        this.states[cell] = ZobristHash.withQuantity(this.states[cell], amount);
+        this.tilesHash ^= this.key(cell);
+    }
+
+    private void rotateTile(final int cell, final boolean clockwise) {
+        this.patterns[cell] = (byte) Direction.rotateMask(this.patterns[cell], clockwise);
+        this.tilesHash ^= this.key(cell);
+        this.states[cell] = ZobristHash.withPattern(this.states[cell], this.patterns[cell]);
+        this.tilesHash ^= this.key(cell);
+    }
+
+    /**
+     * Same rotation of a line as the board, moving the sources with their tiles.
+     */
+    private void shiftLine(final int start, final int stride, final int length, final boolean forward) {
+        final int last = start + (length - 1) * stride;
+        //the keys depend on the cell, every tile of the line goes out of the hash and comes back in its new cell
+        for (int index = start; index <= last; index += stride) {
+            this.tilesHash ^= this.key(index);
+        }
+        if (forward) {
+            final byte pattern = this.patterns[last];
+            final byte material = this.materials[last];
+            final int amount = this.amounts[last];
+            final long state = this.states[last];
+            for (int index = last; index > start; index -= stride) {
+                this.patterns[index] = this.patterns[index - stride];
+                this.materials[index] = this.materials[index - stride];
+                this.amounts[index] = this.amounts[index - stride];
+                this.states[index] = this.states[index - stride];
+            }
+            this.patterns[start] = pattern;
+            this.materials[start] = material;
+            this.amounts[start] = amount;
+            this.states[start] = state;
+        } else {
+            final byte pattern = this.patterns[start];
+            final byte material = this.materials[start];
+            final int amount = this.amounts[start];
+            final long state = this.states[start];
+            for (int index = start; index < last; index += stride) {
+                this.patterns[index] = this.patterns[index + stride];
+                this.materials[index] = this.materials[index + stride];
+                this.amounts[index] = this.amounts[index + stride];
+                this.states[index] = this.states[index + stride];
+            }
+            this.patterns[last] = pattern;
+            this.materials[last] = material;
+            this.amounts[last] = amount;
+            this.states[last] = state;
+        }
+        for (int index = start; index <= last; index += stride) {
+            this.tilesHash ^= this.key(index);
+        }
+        for (int i = 0; i < this.sourceCells.length; i++) {
+            final int offset = this.sourceCells[i] - start;
+            if (offset >= 0 && offset % stride == 0 && offset / stride < length
+                && (stride != 1 || this.sourceCells[i] / this.width == start / this.width)) {
+                final int moved = Math.floorMod(offset / stride + (forward ? 1 : -1), length);
+                this.sourceCells[i] = start + moved * stride;
+            }
+        }
+    }
+
+    private void log(final int operation, final int first, final int second) {
+        if (this.top + ENTRY > this.journal.length) {
+            this.journal = Arrays.copyOf(this.journal, this.journal.length * 2);
+        }
+        this.journal[this.top] = operation;
+        this.journal[this.top + 1] = first;
+        this.journal[this.top + 2] = second;
+        this.top += ENTRY;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ccdr.labyrinth.game.ai;
+
+import com.ccdr.labyrinth.game.GameSnapshot;
+
+/**
+ * The brain of a computer player: it looks at the game and decides a whole turn.
+ * Strategies receive an immutable {@link GameSnapshot}, never the live game, so they can run on any thread.
+ * The dice are rolled after the labyrinth has been changed, so a turn is decided in two steps:
+ * {@link #plan(GameSnapshot, long)} before the change, and {@link #replan(GameSnapshot, Turn, long)}
+ * once the dice value is known, which may pick other moves and missions.
+ * Both must return by the deadline, a late answer is replaced by {@link Turn#fallback(GameSnapshot)}
+ * or by the planned turn.
+ * @see ComputerPlayer
+ */
+@FunctionalInterface
+public interface Strategy {
+    /**
+     * Decides the turn at its start, before the labyrinth is changed.
+     * @param view the game, the dice has not been rolled yet
+     * @param deadline the value of {@link System#nanoTime()} by which the turn should be returned
+     * @return the turn to play
+     */
+    Turn plan(GameSnapshot view, long deadline);
+
+    /**
+     * Decides the moves once the dice has been rolled.
+     * By default the planned moves are kept, stopping when the dice runs out.
+     * @param view the game after the change to the labyrinth, with the value of the dice
+     * @param planned the turn returned by {@link #plan(GameSnapshot, long)}
+     * @param deadline the value of {@link System#nanoTime()} by which the turn should be returned
+     * @return the turn to play, its change is ignored since it has already been made
+     */
+    default Turn replan(final GameSnapshot view, final Turn planned, final long deadline) {
+        return planned;
+    }
+}
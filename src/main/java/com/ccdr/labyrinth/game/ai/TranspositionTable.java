@@ -0,0 +1,109 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers a result for each position, found by its hash, so that a position reached again,
+ * by another order of changes or in another search, does not have to be worked out again.
+ * The table has a fixed size and never allocates after it is created. Every hash has a bucket of two slots:
+ * the first one keeps the result with the highest priority (for example the one that cost more playouts),
+ * the second one takes whatever does not replace the first, so recent results are kept too.
+ * Many threads can read and write at the same time without locks: next to the result, every slot stores
+ * the exclusive or of the hash with the result and its priority, and a slot half written by two threads
+ * at once does not match its hash anymore, so it reads as missing instead of giving a wrong result.
+ */
+public final class TranspositionTable {
+    //longs of a slot: the check, the result and the priority
+    private static final int CHECK = 0;
+    private static final int VALUE = 1;
+    private static final int PRIORITY = 2;
+    private static final int SLOT = 3;
+    private static final int BUCKET = 2 * SLOT;
+    //the priority of an empty slot, that no result can have
+    private static final long EMPTY_PRIORITY = Long.MIN_VALUE;
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param buckets how many buckets of two results the table holds, rounded up to a power of two
+     */
+    public TranspositionTable(final int buckets) {
+        if (buckets <= 0 || buckets > Integer.MAX_VALUE / BUCKET / 2) {
+            throw new IllegalArgumentException("Invalid number of buckets: " + buckets);
+        }
+        final int size = Integer.highestOneBit(buckets) == buckets ? buckets : Integer.highestOneBit(buckets) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicLongArray(size * BUCKET);
+        this.clear();
+    }
+
+    /**
+     * Forgets every result, for example when they were found for a game that has changed since.
+     * It must not be called while other threads use the table.
+     */
+    public void clear() {
+        for (int slot = 0; slot < this.slots.length(); slot += SLOT) {
+            this.slots.set(slot + PRIORITY, EMPTY_PRIORITY);
+        }
+    }
+
+    /**
+     * Stores a result, in the first slot of the bucket if the hash is already there or if its priority
+     * is not lower than the one stored, or else in the second slot.
+     * @param hash the hash of the position
+     * @param value the result
+     * @param priority how much the result is worth keeping, more than {@link Long#MIN_VALUE}
+     */
+    public void put(final long hash, final long value, final long priority) {
+        if (priority == EMPTY_PRIORITY) {
+            throw new IllegalArgumentException("The lowest priority marks empty slots");
+        }
+        final int first = this.bucket(hash);
+        final boolean replaces = this.find(first, hash) || this.slots.get(first + PRIORITY) <= priority;
+        final int kept = replaces ? first : first + SLOT;
+        //the check is written last, a reader that finds it with another result rejects the slot
+        this.slots.set(kept + VALUE, value);
+        this.slots.set(kept + PRIORITY, priority);
+        this.slots.set(kept + CHECK, check(hash, value, priority));
+    }
+
+    /**
+     * @param hash the hash of the position
+     * @param minPriority the lowest priority of a result worth using
+     * @param missing what to return if the position is not stored with at least that priority
+     * @return the stored result, or missing
+     */
+    public long get(final long hash, final long minPriority, final long missing) {
+        final int first = this.bucket(hash);
+        for (int slot = first; slot < first + BUCKET; slot += SLOT) {
+            final long value = this.slots.get(slot + VALUE);
+            final long priority = this.slots.get(slot + PRIORITY);
+            if (priority != EMPTY_PRIORITY && this.slots.get(slot + CHECK) == check(hash, value, priority)) {
+                return priority >= minPriority ? value : missing;
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @return how many results the table can hold
+     */
+    public int capacity() {
+        return this.slots.length() / SLOT;
+    }
+
+    private boolean find(final int slot, final long hash) {
+        final long priority = this.slots.get(slot + PRIORITY);
+        return priority != EMPTY_PRIORITY
+            && this.slots.get(slot + CHECK) == check(hash, this.slots.get(slot + VALUE), priority);
+    }
+
+    private int bucket(final long hash) {
+        //the low bits of the hash pick the bucket, so they are folded with the high ones
+        return (int) ((hash ^ hash >>> Integer.SIZE) & this.mask) * BUCKET;
+    }
+
+    private static long check(final long hash, final long value, final long priority) {
+        return hash ^ value ^ Long.rotateLeft(priority, Integer.SIZE);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ccdr.labyrinth.game.ai;
+
+import java.util.List;
+
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Item;
+
+/**
+ * Everything a player does in one turn: the change to the labyrinth, the moves after the dice roll
+ * and the missions to complete if the moves end on the guild.
+ * @param change the shift or rotation made before rolling the dice
+ * @param path the moves, in order: they stop early when the dice value is lower, or when a move is not allowed
+ * @param missions the missions to complete in the guild, in order, taken from {@link GameSnapshot#getMissions()}
+ */
+public record Turn(Change change, List<Direction> path, List<Item> missions) {
+    /**
+     * @param change the shift or rotation made before rolling the dice
+     * @param path the moves, in order
+     * @param missions the missions to complete in the guild, in order
+     */
+    public Turn {
+        if (change == null) {
+            throw new IllegalArgumentException("A turn must change the labyrinth");
+        }
+        path = List.copyOf(path);
+        missions = List.copyOf(missions);
+    }
+
+    /**
+     * @param change the shift or rotation made before rolling the dice
+     * @return a turn that changes the labyrinth and then stays still
+     */
+    public static Turn of(final Change change) {
+        return new Turn(change, List.of(), List.of());
+    }
+
+    /**
+     * A turn that is always allowed and costs nothing to find, played when a strategy fails or is too slow.
+     * @param view the game at the start of the turn
+     * @return a turn that shifts the first row that can be shifted, or rotates the tile of the active player
+     */
+    public static Turn fallback(final GameSnapshot view) {
+        for (int row = 0; row < view.getHeight(); row++) {
+            if (!view.getBlockedRows().contains(row)) {
+                return of(Change.shiftRow(row, true));
+            }
+        }
+        return of(Change.rotate(view.getPlayers().get(view.getActivePlayerIndex()).coord(), true));
+    }
+
+    /**
+     * @param path the new moves
+     * @return the same turn, with other moves
+     */
+    public Turn withPath(final List<Direction> path) {
+        return new Turn(this.change, path, this.missions);
+    }
+
+    /**
+     * @param missions the new missions to complete
+     * @return the same turn, completing other missions
+     */
+    public Turn withMissions(final List<Item> missions) {
+        return new Turn(this.change, this.path, missions);
+    }
+
+    /**
+     * What can be done to the labyrinth before rolling the dice.
+     */
+    public enum Kind {
+        /**
+         * shift a row, see {@link com.ccdr.labyrinth.game.tiles.Board#shiftRow(int, boolean)}.
+         */
+        SHIFT_ROW,
+        /**
+         * shift a column, see {@link com.ccdr.labyrinth.game.tiles.Board#shiftColumn(int, boolean)}.
+         */
+        SHIFT_COLUMN,
+        /**
+         * rotate one of the tiles around the active player, itself included.
+         */
+        ROTATE
+    }
+
+    /**
+     * A change to the labyrinth.
+     * @param kind what is changed
+     * @param row the shifted row, or the row of the rotated tile
+     * @param column the shifted column, or the column of the rotated tile
+     * @param forward the direction of the shift, or true for a clockwise rotation
+     */
+    public record Change(Kind kind, int row, int column, boolean forward) {
+        /**
+         * @param row the row to shift
+         * @param forward the direction of the shift
+         * @return the change
+         */
+        public static Change shiftRow(final int row, final boolean forward) {
+            return new Change(Kind.SHIFT_ROW, row, 0, forward);
+        }
+
+        /**
+         * @param column the column to shift
+         * @param forward the direction of the shift
+         * @return the change
+         */
+        public static Change shiftColumn(final int column, final boolean forward) {
+            return new Change(Kind.SHIFT_COLUMN, 0, column, forward);
+        }
+
+        /**
+         * @param tile the tile to rotate, at most one step away from the active player in both directions
+         * @param clockwise true to rotate it clockwise
+         * @return the change
+         */
+        public static Change rotate(final Coordinate tile, final boolean clockwise) {
+            return new Change(Kind.ROTATE, tile.row(), tile.column(), clockwise);
+        }
+    }
+}
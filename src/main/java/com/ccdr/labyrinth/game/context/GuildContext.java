@@ -2,6 +2,9 @@ package com.ccdr.labyrinth.game.context;
 
 import com.ccdr.labyrinth.game.generator.MissionGenerator;
 import com.ccdr.labyrinth.game.player.Player;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
 import com.ccdr.labyrinth.game.util.Item;
 import com.ccdr.labyrinth.game.util.Material;
 
@@ -10,6 +13,10 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Class for the context of the guild and the implements of the menu missions.
@@ -19,7 +26,7 @@ public class GuildContext implements Context {
     private final List<Item> missions = new ArrayList<>();
     private final List<Item> missionsCom = new ArrayList<>();
     private final List<Material> materialpresents = new ArrayList<>();
-    private final MissionGenerator getM = new MissionGenerator();
+    private final MissionGenerator getM;
     private int menuIndex;
     private PlayersContext players;
     private boolean done;
@@ -30,12 +37,43 @@ public class GuildContext implements Context {
      * @param nPlayer for the number of missions to generate
      */
     public GuildContext(final int nPlayer) {
-        for (int i = 0; i < nPlayer * 2; i++) {
-            missions.add(getM.generateMission());
-        }
+        this(nPlayer, new Random());
+    }
 
+    /**
+     * Class costructor.
+     * @param nPlayer for the number of missions to generate
+     * @param random source of randomness for the missions, seed it to generate the same missions again
+     */
+    public GuildContext(final int nPlayer, final RandomGenerator random) {
+        this(nPlayer * 2, random, List.of(Material.values()));
+    }
+
+    /**
+     * Class costructor.
+     * @param missionCount the number of missions to generate
+     * @param random source of randomness for the missions, seed it to generate the same missions again
+     * @param materials the materials that missions can ask for
+     */
+    public GuildContext(final int missionCount, final RandomGenerator random, final List<Material> materials) {
+        this.getM = new MissionGenerator(random, materials);
+        missions.addAll(getM.generateMissions(missionCount));
         materialpresents.addAll(getM.materialPresents());
     }
+
+    /**
+     * Adapts the quantities required by the missions to the sources placed on the labyrinth.
+     * @param board the generated labyrinth
+     */
+    public final void tuneMissions(final Board board) {
+        final Map<Material, Integer> sources = new EnumMap<>(Material.class);
+        for (final Tile tile : board.getMap().values()) {
+            if (tile instanceof SourceTile) {
+                sources.merge(((SourceTile) tile).getMaterialType(), 1, Integer::sum);
+            }
+        }
+        MissionGenerator.tune(this.missions, sources);
+    }
     /**
      * Set the PlayerManager.
      * @param pm
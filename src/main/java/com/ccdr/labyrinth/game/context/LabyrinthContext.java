@@ -106,6 +106,13 @@ public final class LabyrinthContext implements Context {
         }
     }
 
+    /**
+     * @return true if the inputs rotate a tile, false if they shift a row or a column
+     */
+    public boolean isRotating() {
+        return this.active == Subcontext.ROTATOR;
+    }
+
     private Context getSubcontext() {
         switch (active) {
             case ROTATOR:
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import com.ccdr.labyrinth.game.GameConfig;
 import com.ccdr.labyrinth.game.player.Player;
@@ -20,9 +21,15 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public class PlayersContext implements Context {
 
-    private static final Random RANDOM = new Random();
     private static final int DICEVAL = 6;
 
+    /**
+     * SuppressFBWarnings because the dice must use the source of randomness of the game,
+     * so that a seeded game rolls the same values every time.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final RandomGenerator dice;
+
     private final List<Player> players = new ArrayList<>();
     private int activePlayer;
     private int diceVal;
@@ -75,6 +82,22 @@ public class PlayersContext implements Context {
     public PlayersContext(final int numPlayers, final Board board,
         final UpdateBoardContext updateContext, final GuildContext guildContext
         ) {
+        this(numPlayers, board, updateContext, guildContext, new Random());
+    }
+
+    /**
+     * The builder for a manager of players, with a list of all players in the game.
+     * It also set as the first active player, the player identified by index 0.
+     * @param numPlayers the number of players in the game
+     * @param board the board of the game
+     * @param updateContext the context that update the active player
+     * @param guildContext the context of the guild
+     * @param dice source of randomness for the dice rolls, every game should have its own
+     */
+    public PlayersContext(final int numPlayers, final Board board,
+        final UpdateBoardContext updateContext, final GuildContext guildContext, final RandomGenerator dice
+        ) {
+        this.dice = dice;
         this.board = board;
         this.updateBoard = updateContext;
         this.guildContext = guildContext;
@@ -138,24 +161,29 @@ public class PlayersContext implements Context {
      */
     public void generateDiceValue() {
         if (this.subphase == Subphase.DICE) {
-            switch (GameConfig.LABYRINTH_SIZE_OPTIONS.indexOf(this.board.getWidth())) {
-                case 0:
-                    this.maxDiceVal = DICEVAL;
-                    break;
-                case 1:
-                    this.maxDiceVal = DICEVAL * 2;
-                    break;
-                case 2:
-                    this.maxDiceVal = DICEVAL * 4;
-                    break;
-                default:
-                    break;
-            }
-            this.diceVal = RANDOM.nextInt(this.maxDiceVal) + 1;
+            this.maxDiceVal = this.getMaxDiceValue();
+            this.diceVal = this.dice.nextInt(this.maxDiceVal) + 1;
             this.subphase = Subphase.MOVEMENT;
         }
     }
 
+    /**
+     * gives the highest value of the dice, that depends on the size of the labyrinth.
+     * @return the number of faces of the dice
+     */
+    public int getMaxDiceValue() {
+        switch (GameConfig.LABYRINTH_SIZE_OPTIONS.indexOf(this.board.getWidth())) {
+            case 0:
+                return DICEVAL;
+            case 1:
+                return DICEVAL * 2;
+            case 2:
+                return DICEVAL * 4;
+            default:
+                return this.maxDiceVal;
+        }
+    }
+
     /**
      * gives the dice value.
      * @return the value of the dice
@@ -185,15 +213,15 @@ public class PlayersContext implements Context {
      */
     @Override
     public void up() {
-        final var startTile = this.board.getMap().get(this.getActivePlayer().getCoord());
-        final var endTile = this.board.getMap()
-            .get(new Coordinate(this.getActivePlayer()
-            .getCoord().row() - 1, this.getActivePlayer().getCoord().column()));
-        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0
+        final Coordinate position = this.getActivePlayer().getCoord();
+        final var startTile = this.board.getTile(position);
+        final var endTile = this.board.getTile(position.row() - 1, position.column());
+        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0 && endTile != null
             && startTile.isOpen(Direction.UP) && endTile.isOpen(Direction.DOWN)) {
             startTile.onExit(this.getActivePlayer());
             this.getActivePlayer().moveUp();
             endTile.onEnter(this.getActivePlayer());
+            this.board.tileChanged(this.getActivePlayer().getCoord());
             this.board.discoverNearBy(this.getActivePlayer().getCoord(), 2);
             this.diceVal--;
         }
@@ -204,15 +232,15 @@ public class PlayersContext implements Context {
      */
     @Override
     public void down() {
-        final var startTile = this.board.getMap().get(this.getActivePlayer().getCoord());
-        final var endTile = this.board.getMap()
-            .get(new Coordinate(this.getActivePlayer()
-            .getCoord().row() + 1, this.getActivePlayer().getCoord().column()));
-        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0
+        final Coordinate position = this.getActivePlayer().getCoord();
+        final var startTile = this.board.getTile(position);
+        final var endTile = this.board.getTile(position.row() + 1, position.column());
+        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0 && endTile != null
             && startTile.isOpen(Direction.DOWN) && endTile.isOpen(Direction.UP)) {
             startTile.onExit(this.getActivePlayer());
             this.getActivePlayer().moveDown();
             endTile.onEnter(this.getActivePlayer());
+            this.board.tileChanged(this.getActivePlayer().getCoord());
             this.board.discoverNearBy(this.getActivePlayer().getCoord(), 2);
             this.diceVal--;
         }
@@ -223,15 +251,15 @@ public class PlayersContext implements Context {
      */
     @Override
     public void left() {
-        final var startTile = this.board.getMap().get(this.getActivePlayer().getCoord());
-        final var endTile = this.board.getMap()
-            .get(new Coordinate(this.getActivePlayer()
-            .getCoord().row(), this.getActivePlayer().getCoord().column() - 1));
-        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0
+        final Coordinate position = this.getActivePlayer().getCoord();
+        final var startTile = this.board.getTile(position);
+        final var endTile = this.board.getTile(position.row(), position.column() - 1);
+        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0 && endTile != null
             && startTile.isOpen(Direction.LEFT) && endTile.isOpen(Direction.RIGHT)) {
             startTile.onExit(this.getActivePlayer());
             this.getActivePlayer().moveLeft();
             endTile.onEnter(this.getActivePlayer());
+            this.board.tileChanged(this.getActivePlayer().getCoord());
             this.board.discoverNearBy(this.getActivePlayer().getCoord(), 2);
             this.diceVal--;
         }
@@ -242,15 +270,15 @@ public class PlayersContext implements Context {
      */
     @Override
     public void right() {
-        final var startTile = this.board.getMap().get(this.getActivePlayer().getCoord());
-        final var endTile = this.board.getMap()
-            .get(new Coordinate(this.getActivePlayer()
-            .getCoord().row(), this.getActivePlayer().getCoord().column() + 1));
-        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0
+        final Coordinate position = this.getActivePlayer().getCoord();
+        final var startTile = this.board.getTile(position);
+        final var endTile = this.board.getTile(position.row(), position.column() + 1);
+        if (this.subphase == Subphase.MOVEMENT && this.diceVal > 0 && endTile != null
             && startTile.isOpen(Direction.RIGHT) && endTile.isOpen(Direction.LEFT)) {
             startTile.onExit(this.getActivePlayer());
             this.getActivePlayer().moveRight();
             endTile.onEnter(this.getActivePlayer());
+            this.board.tileChanged(this.getActivePlayer().getCoord());
             this.board.discoverNearBy(this.getActivePlayer().getCoord(), 2);
             this.diceVal--;
         }
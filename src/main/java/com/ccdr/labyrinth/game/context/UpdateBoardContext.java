@@ -1,9 +1,12 @@
 package com.ccdr.labyrinth.game.context;
 
+import java.util.Map;
+
 import com.ccdr.labyrinth.game.context.PlayersContext.Subphase;
 import com.ccdr.labyrinth.game.tiles.Board;
 import com.ccdr.labyrinth.game.tiles.SourceTile;
 import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -67,9 +70,10 @@ public final class UpdateBoardContext implements Context {
                 this.playerManager.setActivePlayer(nextPlayerIndex % this.playerManager.getPlayers().size());
                 this.playerManager.setTurnSubphase(Subphase.DICE);
             }
-            for (final Tile tile : this.board.getMap().values()) {
-                if (tile instanceof SourceTile) {
-                    ((SourceTile) tile).updateTile();
+            for (final Map.Entry<Coordinate, Tile> entry : this.board.getMap().entrySet()) {
+                if (entry.getValue() instanceof SourceTile) {
+                    ((SourceTile) entry.getValue()).updateTile();
+                    this.board.tileChanged(entry.getKey());
                 }
             }
             this.advancePlayer = true;
@@ -0,0 +1,123 @@
+package com.ccdr.labyrinth.game.generator;
+
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * Makes sure that some cells of a generated board can reach each other without shifting or rotating anything.
+ * Two neighbouring tiles are linked when both are open towards each other, and the linked groups are kept
+ * in a union-find structure, so checking whether two cells are connected costs almost constant time.
+ * When they are not, a path is opened from the first cell towards the second one, and only until it
+ * touches the group of the second cell: the rest of the board is left as it was generated.
+ */
+final class BoardConnector {
+    private final Board board;
+    private final int height, width;
+    private final int[] parent;
+    private final int[] size;
+
+    /**
+     * Links every pair of neighbouring tiles that are open towards each other.
+     * @param board the board to connect, every cell must contain a tile.
+     */
+    BoardConnector(final Board board) {
+        this.board = board;
+        this.height = board.getHeight();
+        this.width = board.getWidth();
+        this.parent = new int[this.height * this.width];
+        this.size = new int[this.parent.length];
+        for (int cell = 0; cell < this.parent.length; cell++) {
+            this.parent[cell] = cell;
+            this.size[cell] = 1;
+        }
+        for (int row = 0; row < this.height; row++) {
+            for (int column = 0; column < this.width; column++) {
+                final Tile tile = board.getTile(row, column);
+                if (column + 1 < this.width && tile.isOpen(Direction.RIGHT)
+                    && board.getTile(row, column + 1).isOpen(Direction.LEFT)) {
+                    this.union(this.cell(row, column), this.cell(row, column + 1));
+                }
+                if (row + 1 < this.height && tile.isOpen(Direction.DOWN)
+                    && board.getTile(row + 1, column).isOpen(Direction.UP)) {
+                    this.union(this.cell(row, column), this.cell(row + 1, column));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param first a cell of the board.
+     * @param second another cell of the board.
+     * @return true if a player can walk from the first cell to the second one.
+     */
+    boolean connected(final Coordinate first, final Coordinate second) {
+        return this.find(this.cell(first)) == this.find(this.cell(second));
+    }
+
+    /**
+     * Opens the walls needed to walk from one cell to another, if they are not already connected.
+     * The path goes vertically first and then horizontally, and stops as soon as it reaches
+     * a tile that is already connected to the target.
+     * @param from the cell that must be connected.
+     * @param to the cell to reach.
+     */
+    void connect(final Coordinate from, final Coordinate to) {
+        final int target = this.cell(to);
+        int row = from.row();
+        int column = from.column();
+        while (this.find(this.cell(row, column)) != this.find(target)) {
+            final Direction step;
+            if (row != to.row()) {
+                step = row < to.row() ? Direction.DOWN : Direction.UP;
+            } else {
+                step = column < to.column() ? Direction.RIGHT : Direction.LEFT;
+            }
+            final int nextRow = row + step.rowStep();
+            final int nextColumn = column + step.columnStep();
+            this.open(this.board.getTile(row, column), step);
+            this.open(this.board.getTile(nextRow, nextColumn), step.opposite());
+            this.union(this.cell(row, column), this.cell(nextRow, nextColumn));
+            row = nextRow;
+            column = nextColumn;
+        }
+    }
+
+    private void open(final Tile tile, final Direction access) {
+        tile.setPatternMask(tile.getPatternMask() | access.mask());
+    }
+
+    private int cell(final Coordinate coordinate) {
+        return this.cell(coordinate.row(), coordinate.column());
+    }
+
+    private int cell(final int row, final int column) {
+        return row * this.width + column;
+    }
+
+    private int find(final int cell) {
+        int current = cell;
+        while (this.parent[current] != current) {
+            //path halving
+            this.parent[current] = this.parent[this.parent[current]];
+            current = this.parent[current];
+        }
+        return current;
+    }
+
+    private void union(final int first, final int second) {
+        int big = this.find(first);
+        int small = this.find(second);
+        if (big == small) {
+            return;
+        }
+        if (this.size[big] < this.size[small]) {
+            final int swap = big;
+            big = small;
+            small = swap;
+        }
+        this.parent[small] = big;
+        this.size[big] += this.size[small];
+    }
+}
@@ -7,30 +7,39 @@ import com.ccdr.labyrinth.game.tiles.GuildTile;
 import com.ccdr.labyrinth.game.tiles.SourceTile;
 import com.ccdr.labyrinth.game.tiles.StandardTile;
 import com.ccdr.labyrinth.game.util.Coordinate;
-import com.ccdr.labyrinth.game.util.Direction;
 import com.ccdr.labyrinth.game.util.Material;
 
-import java.util.Map;
 import java.util.List;
-import java.util.Set;
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 import java.util.Optional;
+import java.util.stream.IntStream;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * BoardGenerator contains all the logic to generate a randomic board following some preconcepts:
  * -> The guild tile is always placed at the center of the labyrinth.
  * -> The source tiles are placed circular around the guild tile.
  * -> The normal tiles are placed randomically and with a probability to contain a bonus material inside.
+ * Normal tiles are generated first, in parallel bands of rows, then the guild and the sources replace some of them.
+ * In connected mode the spawns of the players and the sources are then linked to the guild, see {@link #connected(boolean)}.
  */
 public final class BoardGenerator {
-    private static final int MIN_PATTERN_SELECTOR = 0, MAX_PATTERN_SELECTOR = 4;
+    //rows filled by a single task, fixed so that the result does not depend on the number of cores
+    private static final int BAND_ROWS = 32;
     private final int height, width, sourceNumber, playerNum;
-    private final Random seed;
+    //also given to the CoordinateGenerator, one source drives the whole board
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final RandomGenerator seed;
     private final CoordinateGenerator placer;
-    private final Set<Coordinate> playersLocation;
+    //in the order used by the PlayersContext to place the players
+    private final List<Coordinate> playersLocation;
     private final List<Material> materials;
     private final List<Optional<Material>> bonuses;
+    private boolean connected;
 
     /**
      * The constructor of BoardGenerator that sets up all necessary informations
@@ -42,22 +51,51 @@ public final class BoardGenerator {
      * @param materials the list of used materials.
      */
     public BoardGenerator(final int h, final int w, final int sources, final int players, final List<Material> materials) {
+        this(h, w, sources, players, materials, new Random());
+    }
+
+    /**
+     * The constructor of BoardGenerator that sets up all necessary informations
+     * to generate the board correctly.
+     * @param h the height of the labyrinth.
+     * @param w the width of the labyrinth.
+     * @param sources sources number.
+     * @param players players number.
+     * @param materials the list of used materials.
+     * @param random the source of randomness, seed it to generate the same board again.
+     */
+    public BoardGenerator(final int h, final int w, final int sources, final int players, final List<Material> materials,
+        final RandomGenerator random) {
         this.sourceNumber = sources;
         this.playerNum = players;
         this.height = h;
         this.width = w;
-        this.playersLocation = Set.of(
+        this.playersLocation = List.of(
             new Coordinate(0, 0),
             new Coordinate(0, this.width - 1),
             new Coordinate(this.height - 1, 0),
             new Coordinate(this.height - 1, this.width - 1)
         );
-        this.placer = new CoordinateGenerator(this.height, this.width, this.sourceNumber);
-        this.seed = new Random();
+        this.placer = new CoordinateGenerator(this.height, this.width, this.sourceNumber, random);
+        this.seed = random;
         this.materials = setupMaterialsList(materials);
         this.bonuses = this.setupBonusList(materials);
     }
 
+    /**
+     * Enables or disables the connected mode, disabled by default.
+     * When enabled, every spawn of a player and every source can be reached from the guild without
+     * shifting or rotating any tile. The board is checked with a union-find over the open sides
+     * of neighbouring tiles, and only the tiles along the path towards the guild of a cell
+     * that is not connected get new open sides, so the cost stays almost linear in the number of cells.
+     * @param enabled true to enable the connected mode.
+     * @return this generator.
+     */
+    public BoardGenerator connected(final boolean enabled) {
+        this.connected = enabled;
+        return this;
+    }
+
     /**
      * The main method of this class, which based on the information taken from the constructor
      * executes all calls to internal methods used to generate all interested objects.
@@ -66,39 +104,78 @@ public final class BoardGenerator {
      */
     public Board generate(final int maxPoints) {
         //Parameters that depend on the config
-        final Board tiles = new GameBoard();
+        final Board tiles = new GameBoard(this.height, this.width);
         final Coordinate center = new Coordinate(height / 2, width / 2);
-        int normalQuantity = height * width - this.sourceNumber - 1;
-        //Guild tile generation
+        //Normal and bonus tiles generation, one band of rows per task
+        final Tile[][] bands = this.generateBands();
+        for (int band = 0; band < bands.length; band++) {
+            final int firstRow = band * BAND_ROWS;
+            for (int cell = 0; cell < bands[band].length; cell++) {
+                tiles.insertTile(new Coordinate(firstRow + cell / this.width, cell % this.width), bands[band][cell]);
+            }
+        }
+        //Guild tile generation, it replaces the normal tile in the center
         final GuildTile guild = new GuildTile(maxPoints);
-        guild.setPattern(selectPattern(4));
+        guild.setPatternMask(TilePatterns.STRAIGHT);
         tiles.insertTile(center, guild);
         tiles.addBlocked(center);
         //Source Tiles generation
         final List<Coordinate> sourceCoordinates = new ArrayList<>();
-        sourceCoordinates.addAll(this.placer.calculateSourcesCoordinates(center, tiles.getMap()));
+        sourceCoordinates.addAll(this.placer.calculateSourcesCoordinates(center));
+        final List<Coordinate> placed = new ArrayList<>();
         int index = sourceCoordinates.size() - 1;
         Coordinate sourceGeneratedCoordinate;
         for (final Material m : this.materials) {
             sourceGeneratedCoordinate = sourceCoordinates.remove(index--);
             tiles.addBlocked(sourceGeneratedCoordinate);
             tiles.insertTile(sourceGeneratedCoordinate, generateSource(m, this.playerNum));
+            placed.add(sourceGeneratedCoordinate);
         }
-        //Normal and bonus tiles generation
-        while (normalQuantity > 0) {
-            final Tile generatedTile;
-            Coordinate generatedCoordinate;
-            Optional<Material> sourcesMaterial;
-            generatedCoordinate = this.placer.generateRandomCoordinate(tiles.getMap());
-            sourcesMaterial = this.pickMaterial(this.bonuses);
-            generatedTile = this.generateStandardTile(sourcesMaterial, generatedCoordinate);
-            generatedTile.setPattern(generateRandomPattern().getPattern());
-            tiles.insertTile(generatedCoordinate, generatedTile);
-            normalQuantity--; 
+        if (this.connected) {
+            placed.addAll(this.playersLocation.subList(0, Math.min(this.playerNum, this.playersLocation.size())));
+            final BoardConnector connector = new BoardConnector(tiles);
+            for (final Coordinate target : placed) {
+                connector.connect(target, center);
+            }
         }
         return tiles;
     }
 
+    /**
+     * Generates a normal tile for every cell of the labyrinth.
+     * The rows are split in bands of fixed size and each band gets its own random stream,
+     * split in order before any band starts: bands are filled in parallel, yet the result only depends on the seed.
+     * @return the tiles of every band, in row-major order.
+     */
+    private Tile[][] generateBands() {
+        final int bandCount = (this.height + BAND_ROWS - 1) / BAND_ROWS;
+        final SplittableRandom streams = new SplittableRandom(this.seed.nextLong());
+        final SplittableRandom[] bandStreams = new SplittableRandom[bandCount];
+        for (int band = 0; band < bandCount; band++) {
+            bandStreams[band] = streams.split();
+        }
+        final Tile[][] bands = new Tile[bandCount][];
+        IntStream.range(0, bandCount).parallel().forEach(band -> {
+            final int firstRow = band * BAND_ROWS;
+            final int rows = Math.min(BAND_ROWS, this.height - firstRow);
+            bands[band] = this.generateBand(firstRow, rows, bandStreams[band]);
+        });
+        return bands;
+    }
+
+    private Tile[] generateBand(final int firstRow, final int rows, final RandomGenerator random) {
+        final Tile[] band = new Tile[rows * this.width];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < this.width; column++) {
+                final Coordinate coordinate = new Coordinate(firstRow + row, column);
+                final Tile generatedTile = this.generateStandardTile(this.pickMaterial(this.bonuses, random), coordinate);
+                generatedTile.setPatternMask(TilePatterns.random(random));
+                band[row * this.width + column] = generatedTile;
+            }
+        }
+        return band;
+    }
+
     private StandardTile generateStandardTile(final Optional<Material> bonus, final Coordinate coordinates) {
         if (bonus.isEmpty() || this.playersLocation.contains(coordinates)) {
             return new StandardTile();
@@ -107,9 +184,9 @@ public final class BoardGenerator {
         }
     }
 
-    private Optional<Material> pickMaterial(final List<Optional<Material>> bonuses) {
+    private Optional<Material> pickMaterial(final List<Optional<Material>> bonuses, final RandomGenerator random) {
         if (!bonuses.isEmpty()) {
-            return bonuses.get(seed.nextInt(0, bonuses.size()));
+            return bonuses.get(random.nextInt(0, bonuses.size()));
         } else {
             return Optional.empty();
         }
@@ -135,64 +212,10 @@ public final class BoardGenerator {
 
     private Tile generateSource(final Material material, final int playerCount) {
         final Tile generatedTile = new SourceTile(material, playerCount);
-        generatedTile.setPattern(generateRandomPattern().getPattern());
+        generatedTile.setPatternMask(TilePatterns.random(this.seed));
         return generatedTile;
     }
 
-    private Tile generateRandomPattern() {
-        final Tile pattern = new StandardTile();
-        final int patternSelector = seed.nextInt(MIN_PATTERN_SELECTOR, MAX_PATTERN_SELECTOR);
-        int rotations;
-        rotations = seed.nextInt(MIN_PATTERN_SELECTOR, MAX_PATTERN_SELECTOR);
-        pattern.setPattern(selectPattern(patternSelector));
-        /* the random number of rotations allows to have all possible tile patterns given the predetermined ones */
-        while (rotations > 0) {
-            pattern.rotate(true);
-            rotations--;
-        }
-        return pattern;
-    }
-
-    private Map<Direction, Boolean> selectPattern(final int selected) {
-        /* PREDETERMINED TILE PATTERNS SELECTOR */
-        switch (selected) {
-            /* straight two-way pattern */
-            case 0:
-                return Map.of(
-                    Direction.UP, true,
-                    Direction.RIGHT, false,
-                    Direction.DOWN, true,
-                    Direction.LEFT, false
-                );
-            /* 90 degree two way pattern */
-            case 1:
-                return Map.of(
-                    Direction.UP, true,
-                    Direction.RIGHT, true,
-                    Direction.DOWN, false,
-                    Direction.LEFT, false
-                );
-            /* three-way pattern */
-            case 2:
-                return Map.of(
-                    Direction.UP, true,
-                    Direction.RIGHT, true,
-                    Direction.DOWN, true,
-                    Direction.LEFT, false
-                );
-            /* four-way pattern */
-            case 3:
-                return Map.of(
-                    Direction.UP, true,
-                    Direction.RIGHT, true,
-                    Direction.DOWN, true,
-                    Direction.LEFT, true
-                );
-            default:
-                return this.selectPattern(0);
-        }
-    }
-
     /**
      * Generates a list of materials that will be used to place the source tiles in the map.
      * @param presents list of mission related materials.
@@ -1,22 +1,28 @@
 package com.ccdr.labyrinth.game.generator;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
-import com.ccdr.labyrinth.game.tiles.Tile;
 import com.ccdr.labyrinth.game.util.Coordinate;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * This class work similar to an utility class
- * Every method generate one valid random coordinate based on a passed board.
+ * Every method generate valid random coordinates based on a passed board.
  */
 public final class CoordinateGenerator {
     private static final int PARTIAL = 3;
     private static final int ENTIRE = 5;
-    private final Random randomGenerator;
+    //cells between two sources on the same ring, and between two rings
+    private static final int SPACING = 2;
+    private static final int MIN_RADIUS = 2;
+    //usually the same source of the BoardGenerator that uses this object
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final RandomGenerator randomGenerator;
     private final int labyrinthHeight, labyrinthWidth, sourceNumber;
 
     /**
@@ -26,53 +32,140 @@ public final class CoordinateGenerator {
      * @param sourceNumber the number of sources that will be in the final labyrinth.
      */
     public CoordinateGenerator(final int labyrinthHeight, final int labyrinthWidth, final int sourceNumber) {
+        this(labyrinthHeight, labyrinthWidth, sourceNumber, new Random());
+    }
+
+    /**
+     * The constructor of CoordinateGenerator.
+     * @param labyrinthHeight the height of the labyrinth.
+     * @param labyrinthWidth the width of the labyrinth.
+     * @param sourceNumber the number of sources that will be in the final labyrinth.
+     * @param random the source of randomness, seed it to generate the same coordinates again.
+     */
+    public CoordinateGenerator(final int labyrinthHeight, final int labyrinthWidth, final int sourceNumber,
+        final RandomGenerator random) {
         this.labyrinthHeight = labyrinthHeight;
         this.labyrinthWidth = labyrinthWidth;
         this.sourceNumber = sourceNumber;
-        this.randomGenerator = new Random();
+        this.randomGenerator = random;
     }
 
     /**
-     * Based on a board, this method generate a valid random coordinate.
-     * @param board
-     * @return a randomly generated coordinate included between the edges of the game board.
+     * Based on a maze, this method generates the coordinates of the sources on rings around the center.
+     * The first ring is the circle used for few sources, more rings are added every {@link #SPACING} cells
+     * outwards and inwards when the sources would be closer than that, and every ring starts at a random angle.
+     * The cells already taken are kept in an occupancy grid: a point that rounds to a taken cell,
+     * to the center or to a spawn of the players moves to the nearest free cell, so the coordinates are always distinct.
+     * @param center the center of the circle.
+     * @return the distinct coordinates of the sources.
      */
-    public Coordinate generateRandomCoordinate(final Map<Coordinate, Tile> board) {
-        final int start = 0;
-        Coordinate coordinate;
-        int row, column;
-        do {
-            row = randomGenerator.nextInt(start, this.labyrinthHeight);
-            column = randomGenerator.nextInt(start, this.labyrinthWidth);
-            coordinate = new Coordinate(row, column);
-        } while (board.containsKey(coordinate));
-        return coordinate;
+    public List<Coordinate> calculateSourcesCoordinates(final Coordinate center) {
+        final boolean[] occupied = new boolean[this.labyrinthHeight * this.labyrinthWidth];
+        final int reserved = this.reserve(occupied, center);
+        if (this.sourceNumber > occupied.length - reserved) {
+            throw new IllegalArgumentException("Too many sources for the labyrinth");
+        }
+        final int centerWidthRadius = Math.floorDiv(this.labyrinthWidth * PARTIAL / ENTIRE, 2);
+        final int centerHeightRadius = Math.floorDiv(this.labyrinthHeight * PARTIAL / ENTIRE, 2);
+        final List<Integer> radii = this.ringRadii(Math.min(centerHeightRadius, centerWidthRadius));
+        long capacity = 0;
+        for (final int radius : radii) {
+            capacity += ringCapacity(radius);
+        }
+        final List<Coordinate> valids = new ArrayList<>(this.sourceNumber);
+        int placed = 0;
+        long capacityBefore = 0;
+        for (final int radius : radii) {
+            //sources given to each ring in proportion to its length
+            capacityBefore += ringCapacity(radius);
+            final int onRing = (int) (this.sourceNumber * capacityBefore / capacity) - placed;
+            final double slice = Math.PI * 2 / Math.max(1, onRing);
+            final double phase = this.randomGenerator.nextDouble(slice);
+            for (int i = 0; i < onRing; i++) {
+                final Coordinate point = calculateCirclePoint(radius, phase + slice * i, center);
+                valids.add(this.nearestFree(occupied, point));
+            }
+            placed += onRing;
+        }
+        return valids;
     }
 
     /**
-     * Based on a maze, this method generates a valid causal coordinate
-     * belonging to the circumference of the calculated circle.
-     * @param center the center of the circle.
-     * @param board the labyrinth.
-     * @return a randomly generated coordinate that belongs to the circumference.
+     * Chooses the rings to use: starting from the given radius, rings are added alternately
+     * outwards and inwards until they can host every source, or there is no more room.
      */
-    public List<Coordinate> calculateSourcesCoordinates(final Coordinate center, final Map<Coordinate, Tile> board) {
-        final int centerWidth, centerHeight;
-        final int centerWidthRadius, centerHeightRadius;
-        final List<Coordinate> valids = new ArrayList<>();
-        double toPlace = this.sourceNumber;
-        final double slice = Math.PI * 2 / toPlace;
-        double angle = slice;
-        centerWidth = this.labyrinthWidth * PARTIAL / ENTIRE;
-        centerHeight = this.labyrinthHeight * PARTIAL / ENTIRE;
-        centerWidthRadius = Math.floorDiv(centerWidth, 2);
-        centerHeightRadius = Math.floorDiv(centerHeight, 2);
-        while (toPlace > 0) {
-            valids.add(calculateCirclePoint(Math.min(centerHeightRadius, centerWidthRadius), angle, center));
-            angle += slice;
-            toPlace--;
+    private List<Integer> ringRadii(final int firstRadius) {
+        final int maxRadius = Math.max(MIN_RADIUS, Math.min(this.labyrinthHeight, this.labyrinthWidth) / 2 - 1);
+        final int first = Math.max(MIN_RADIUS, Math.min(maxRadius, firstRadius));
+        final List<Integer> radii = new ArrayList<>();
+        radii.add(first);
+        long capacity = ringCapacity(first);
+        for (int step = SPACING; capacity < this.sourceNumber
+            && (first + step <= maxRadius || first - step >= MIN_RADIUS); step += SPACING) {
+            if (first + step <= maxRadius) {
+                radii.add(first + step);
+                capacity += ringCapacity(first + step);
+            }
+            if (first - step >= MIN_RADIUS) {
+                radii.add(first - step);
+                capacity += ringCapacity(first - step);
+            }
         }
-        return valids;
+        return radii;
+    }
+
+    private static long ringCapacity(final int radius) {
+        return Math.max(1, (long) (Math.PI * 2 * radius / SPACING));
+    }
+
+    /**
+     * Marks the guild and the spawns of the players as taken.
+     * @return how many cells have been taken.
+     */
+    private int reserve(final boolean[] occupied, final Coordinate center) {
+        final int[] cells = {
+            this.cell(center.row(), center.column()),
+            this.cell(0, 0),
+            this.cell(0, this.labyrinthWidth - 1),
+            this.cell(this.labyrinthHeight - 1, 0),
+            this.cell(this.labyrinthHeight - 1, this.labyrinthWidth - 1)
+        };
+        int reserved = 0;
+        for (final int cell : cells) {
+            if (!occupied[cell]) {
+                occupied[cell] = true;
+                reserved++;
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Looks for the free cell nearest to a point, on squares of growing size around it, and takes it.
+     * Points are well spread, so the first square almost always contains a free cell.
+     */
+    private Coordinate nearestFree(final boolean[] occupied, final Coordinate point) {
+        final int row = Math.max(0, Math.min(this.labyrinthHeight - 1, point.row()));
+        final int column = Math.max(0, Math.min(this.labyrinthWidth - 1, point.column()));
+        final int maxDistance = Math.max(this.labyrinthHeight, this.labyrinthWidth);
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            for (int r = row - distance; r <= row + distance; r++) {
+                for (int c = column - distance; c <= column + distance; c++) {
+                    //only the border of the square, the inside has already been checked
+                    final boolean border = Math.abs(r - row) == distance || Math.abs(c - column) == distance;
+                    if (border && r >= 0 && r < this.labyrinthHeight && c >= 0 && c < this.labyrinthWidth
+                        && !occupied[this.cell(r, c)]) {
+                        occupied[this.cell(r, c)] = true;
+                        return new Coordinate(r, c);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No free cell for a source");
+    }
+
+    private int cell(final int row, final int column) {
+        return row * this.labyrinthWidth + column;
     }
 
     private Coordinate calculateCirclePoint(final int radius, final double angle, final Coordinate center) {
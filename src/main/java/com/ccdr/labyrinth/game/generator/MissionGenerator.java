@@ -1,7 +1,12 @@
 package com.ccdr.labyrinth.game.generator;
 
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 import java.util.Set;
 
 import com.ccdr.labyrinth.game.util.Category;
@@ -9,69 +14,125 @@ import com.ccdr.labyrinth.game.util.Item;
 import com.ccdr.labyrinth.game.util.Material;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Collections;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
 /**
  * Class for creating missions belonging to the guild.
+ * Missions come in pairs that ask for the same material with different categories: every material is used
+ * once before any is used again, and a material gets two pairs of different categories before any is repeated.
+ * Materials and categories are drawn from bags of the values not used yet, so there are no retries
+ * and every mission costs the same, however many of them are generated.
  */
 public class MissionGenerator {
     private static final int MIN_REQUIRED = 5;
     private static final int MAX_REQUIRED = 10;
-    private int materialtemp;
-    private int idCat;
-    private int idMat;
-    private final Set<Category> category = new HashSet<>(Set.of(Category.values()));
+    private static final int MIN_POINTS = 2 * 3;
+    private static final int MAX_POINTS = 10;
+    private static final int MISSIONS_PER_MATERIAL = 2;
+    //sources of a material for each mission that asks for it, with the default config
+    private static final int REFERENCE_SOURCES = 2;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final Material[] MATERIALS = Material.values();
+    private final Material[] allowed;
+    private final Bag materials;
+    private final Bag[] categories = new Bag[MATERIALS.length];
     private final List<Material> materialpresents = new ArrayList<>();
-    private final Set<Material> material = new HashSet<>(Set.of(Material.values()));
-    private final Random quantityGenerator = new Random();
+    private final Set<Material> present = EnumSet.noneOf(Material.class);
+    private Material currentMaterial;
+    private int generated;
+    //the caller decides the source, so that missions can be generated again from a seed
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    private final RandomGenerator quantityGenerator;
 
     /**
-     * method for generating a mission considering that there must not be
-     * identical missions and that there must be two missions per material.
-     * @return one item tha is a mission
+     * Creates a generator with its own unseeded source of randomness.
      */
-    public final Item generateMission() {
-        final Item item = new Item(); /**creation of the new Item to be able to generate a list. */
+    public MissionGenerator() {
+        this(new Random());
+    }
 
-        /**Condition used to not repeat the same category with the same material. */
-        if (materialtemp == 1 || materialtemp == 0) {
-            if (materialtemp == 1) {
-                category.remove(Category.values()[idCat]);
-            }
+    /**
+     * @param random source of randomness, seed it to generate the same missions again
+     */
+    public MissionGenerator(final RandomGenerator random) {
+        this(random, List.of(MATERIALS));
+    }
 
-            do {
-                idCat = quantityGenerator.nextInt(0, 2 * 2 + 1);
-            } while (!category.contains(Category.values()[idCat]));
+    /**
+     * @param random source of randomness, seed it to generate the same missions again
+     * @param allowed the materials that missions can ask for, for example the ones of the sources of a stored board
+     */
+    public MissionGenerator(final RandomGenerator random, final List<Material> allowed) {
+        if (allowed.isEmpty()) {
+            throw new IllegalArgumentException("Missions need at least one material");
         }
-
-        /**Condition used to not repeat the same material. */
-        if (materialtemp == 2 || materialtemp == 0) {
-            if (materialtemp == 2) {
-                material.remove(Material.values()[idMat]);
-                materialtemp = 0;
-            }
-
-            do {
-                idMat = quantityGenerator.nextInt(0, 2 * 3);
-            } while (!material.contains(Material.values()[idMat]));
+        this.quantityGenerator = random;
+        this.allowed = allowed.toArray(new Material[0]);
+        this.materials = new Bag(this.allowed.length);
+        for (int i = 0; i < this.categories.length; i++) {
+            this.categories[i] = new Bag(CATEGORIES.length);
         }
+    }
 
-        item.setCategory(Category.values()[idCat]);
-        item.setMaterial(Material.values()[idMat]);
-        materialtemp++;
-
-        if (!materialpresents.contains(item.getMaterial())) {
-            materialpresents.add(item.getMaterial());
+    /**
+     * method for generating a mission considering that there must not be
+     * identical missions and that there must be two missions per material.
+     * @return one item tha is a mission
+     */
+    public final Item generateMission() {
+        final Item item = new Item();
+        if (this.generated % MISSIONS_PER_MATERIAL == 0) {
+            this.currentMaterial = this.allowed[this.materials.draw(this.quantityGenerator)];
+            this.categories[this.currentMaterial.ordinal()].reserve(MISSIONS_PER_MATERIAL);
+        }
+        this.generated++;
+        item.setMaterial(this.currentMaterial);
+        item.setCategory(CATEGORIES[this.categories[this.currentMaterial.ordinal()].draw(this.quantityGenerator)]);
+        if (this.present.add(this.currentMaterial)) {
+            this.materialpresents.add(this.currentMaterial);
         }
         /**Set quantity of materials. */
-        item.setQuantity(quantityGenerator.nextInt(MIN_REQUIRED, MAX_REQUIRED));
+        item.setQuantity(this.quantityGenerator.nextInt(MIN_REQUIRED, MAX_REQUIRED));
         /**Set quantity of points. */
-        item.setPoints(quantityGenerator.nextInt(2 * 3, 10 + 1));
-
+        item.setPoints(this.quantityGenerator.nextInt(MIN_POINTS, MAX_POINTS + 1));
         return item;
+    }
+
+    /**
+     * @param count how many missions to generate, there is no upper limit
+     * @return the generated missions
+     */
+    public final List<Item> generateMissions(final int count) {
+        final List<Item> missions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            missions.add(this.generateMission());
+        }
+        return missions;
+    }
 
+    /**
+     * Scales the quantity required by every mission to the sources of its material on the board:
+     * a material with many sources for each mission asks for more, a rare one asks for less.
+     * With the default config the quantities do not change, and they are never scaled by more than
+     * a factor of two in either direction.
+     * @param missions the missions to tune
+     * @param sources the number of sources of every material on the board
+     */
+    public static void tune(final Collection<Item> missions, final Map<Material, Integer> sources) {
+        final Map<Material, Integer> demand = new EnumMap<>(Material.class);
+        for (final Item mission : missions) {
+            demand.merge(mission.getMaterial(), 1, Integer::sum);
+        }
+        for (final Item mission : missions) {
+            final int quantity = mission.getQuantity();
+            final int supply = sources.getOrDefault(mission.getMaterial(), 0);
+            final int scaled = quantity * supply / (demand.get(mission.getMaterial()) * REFERENCE_SOURCES);
+            mission.setQuantity(Math.max(1, Math.max(quantity / 2, Math.min(quantity * 2, scaled))));
+        }
     }
+
     /**
      *
      * @return max point
@@ -86,4 +147,36 @@ public class MissionGenerator {
     public final List<Material> materialPresents() {
         return Collections.unmodifiableList(this.materialpresents);
     }
+
+    /**
+     * Values not drawn yet, kept at the start of the array: a draw swaps the chosen one past the end.
+     * When the bag is empty every value is put back.
+     */
+    private static final class Bag {
+        private final int[] values;
+        private int left;
+
+        Bag(final int size) {
+            this.values = new int[size];
+            for (int i = 0; i < size; i++) {
+                this.values[i] = i;
+            }
+        }
+
+        void reserve(final int count) {
+            if (this.left < count) {
+                this.left = this.values.length;
+            }
+        }
+
+        int draw(final RandomGenerator random) {
+            this.reserve(1);
+            final int index = random.nextInt(this.left);
+            final int value = this.values[index];
+            this.left--;
+            this.values[index] = this.values[this.left];
+            this.values[this.left] = value;
+            return value;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.ccdr.labyrinth.game.generator;
+
+import java.util.random.RandomGenerator;
+
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * Static table of the patterns that the generator gives to the tiles, as masks of open directions.
+ * Every predetermined pattern appears once for each of its four rotations, so drawing a uniform entry
+ * of the table gives each mask a weight proportional to how many rotations produce it:
+ * the four-way pattern is the same in every rotation, the straight one has two distinct variants.
+ */
+final class TilePatterns {
+    /**
+     * straight two-way pattern.
+     */
+    static final int STRAIGHT = Direction.UP.mask() | Direction.DOWN.mask();
+    /**
+     * 90 degree two way pattern.
+     */
+    static final int CORNER = Direction.UP.mask() | Direction.RIGHT.mask();
+    /**
+     * three-way pattern.
+     */
+    static final int THREE_WAY = Direction.UP.mask() | Direction.RIGHT.mask() | Direction.DOWN.mask();
+    /**
+     * four-way pattern.
+     */
+    static final int FOUR_WAY = Direction.ALL_OPEN;
+
+    private static final int[] PREDETERMINED = {STRAIGHT, CORNER, THREE_WAY, FOUR_WAY};
+    private static final int[] TABLE = new int[PREDETERMINED.length * Direction.PATTERN_BITS];
+
+    static {
+        int entry = 0;
+        for (final int base : PREDETERMINED) {
+            int rotated = base;
+            for (int rotation = 0; rotation < Direction.PATTERN_BITS; rotation++) {
+                TABLE[entry++] = rotated;
+                rotated = Direction.rotateMask(rotated, true);
+            }
+        }
+    }
+
+    private TilePatterns() { }
+
+    /**
+     * @param random source of randomness
+     * @return a random pattern mask, see {@link Direction#mask()}
+     */
+    static int random(final RandomGenerator random) {
+        return TABLE[random.nextInt(TABLE.length)];
+    }
+}
@@ -0,0 +1,359 @@
+package com.ccdr.labyrinth.game.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+import java.util.Set;
+
+import com.ccdr.labyrinth.game.GameBoard;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.GuildTile;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * Compact binary format of a {@link Board}.
+ * After a header with the size and the blocked rows and columns, every cell takes one byte:
+ * the four pattern bits, two bits for the kind of tile, the discovered bit and a flag that tells
+ * whether the tile carries more data (bonus material, source state, visited guild).
+ * Only sources, guilds and bonus tiles have that data, so a board takes little more than one byte per cell.
+ * Numbers are written as variable-length integers, so small values take a single byte.
+ * Boards are read and written through a small buffer, so a board of any size can be streamed over a channel.
+ * Who reads or writes many boards can give the same buffer to every call, instead of allocating one for each board.
+ */
+public final class BoardCodec {
+    /**
+     * First bytes of every encoded board.
+     */
+    public static final int MAGIC = 0x4C42_5244;
+    /**
+     * Version of the format, increased when the layout changes.
+     */
+    public static final byte VERSION = 1;
+    /**
+     * Size of the buffer allocated by the calls that are not given one.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+    //bytes used by a variable-length int, and by the largest cell (header, material and three numbers)
+    private static final int MAX_VARINT = 5;
+    private static final int MAX_CELL = 2 + 3 * MAX_VARINT;
+    /**
+     * Smallest buffer that can be given to read or write a board, it holds the largest cell.
+     */
+    public static final int MIN_BUFFER_SIZE = MAX_CELL;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_DATA = 0x7F;
+    private static final int KIND_SHIFT = Direction.PATTERN_BITS;
+    private static final int KIND_MASK = 0b11;
+    private static final int KIND_EMPTY = 0;
+    private static final int KIND_STANDARD = 1;
+    private static final int KIND_SOURCE = 2;
+    private static final int KIND_GUILD = 3;
+    private static final int DISCOVERED = 1 << 6;
+    private static final int EXTRA = 1 << 7;
+    private static final Material[] MATERIALS = Material.values();
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Writes a board, then writes to the channel any byte still buffered.
+     * @param board the board to write.
+     * @param channel where to write the board, it is not closed.
+     * @throws IOException if the channel cannot be written.
+     */
+    public static void write(final Board board, final WritableByteChannel channel) throws IOException {
+        write(board, ByteBuffer.allocate(BUFFER_SIZE), channel);
+    }
+
+    /**
+     * Writes a board through a buffer owned by the caller, then writes to the channel any byte still buffered.
+     * @param board the board to write.
+     * @param buffer where the bytes are gathered, its content is discarded; it is empty on return.
+     * @param channel where to write the board, it is not closed.
+     * @throws IOException if the channel cannot be written.
+     * @throws IllegalArgumentException if the buffer is smaller than {@link #MIN_BUFFER_SIZE}.
+     */
+    public static void write(final Board board, final ByteBuffer buffer, final WritableByteChannel channel)
+        throws IOException {
+        checkSize(buffer);
+        final Output out = new Output(buffer.clear(), channel);
+        out.require(Integer.BYTES + 1);
+        out.buffer.putInt(MAGIC);
+        out.buffer.put(VERSION);
+        out.writeInt(board.getHeight());
+        out.writeInt(board.getWidth());
+        out.writeSet(board.getBlockedRows());
+        out.writeSet(board.getBlockedColumns());
+        for (int row = 0; row < board.getHeight(); row++) {
+            for (int column = 0; column < board.getWidth(); column++) {
+                out.require(MAX_CELL);
+                writeTile(out, board.getTile(row, column));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a board written by {@link #write(Board, WritableByteChannel)}.
+     * The channel is read through a buffer, so it may be left past the end of the board.
+     * @param channel where to read the board from.
+     * @return the board, as it was when written.
+     * @throws IOException if the channel cannot be read or does not contain a board.
+     */
+    public static Board read(final ReadableByteChannel channel) throws IOException {
+        return read(ByteBuffer.allocate(BUFFER_SIZE).flip(), channel);
+    }
+
+    /**
+     * Reads a board written by {@link #write(Board, WritableByteChannel)} through a buffer owned by the caller.
+     * The bytes between the position and the limit of the buffer are read first, as if they came from
+     * the channel; on return the buffer keeps the bytes read past the end of the board, so the same buffer
+     * and channel can read the next one.
+     * @param buffer bytes already read from the channel, ready to be read; an empty one is made with
+     * {@code ByteBuffer.allocate(size).flip()}.
+     * @param channel where to read the rest of the board from.
+     * @return the board, as it was when written.
+     * @throws IOException if the channel cannot be read or does not contain a board.
+     * @throws IllegalArgumentException if the buffer is smaller than {@link #MIN_BUFFER_SIZE}.
+     */
+    public static Board read(final ByteBuffer buffer, final ReadableByteChannel channel) throws IOException {
+        checkSize(buffer);
+        return read(new Input(buffer, channel));
+    }
+
+    /**
+     * Reads a board from memory, for example a slice of a mapped file.
+     * The position of the buffer is moved past the end of the board.
+     * @param buffer the bytes of the board.
+     * @return the board, as it was when written.
+     * @throws IOException if the buffer does not contain a board.
+     */
+    public static Board read(final ByteBuffer buffer) throws IOException {
+        return read(new Input(buffer, null));
+    }
+
+    private static Board read(final Input in) throws IOException {
+        in.require(Integer.BYTES + 1);
+        if (in.buffer.remaining() < Integer.BYTES || in.buffer.getInt() != MAGIC) {
+            throw new IOException("Not a board");
+        }
+        final byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported board version " + version);
+        }
+        final int height = in.readInt();
+        final int width = in.readInt();
+        if (height < 0 || width < 0) {
+            throw new IOException("Invalid board size " + height + "x" + width);
+        }
+        final Board board = new GameBoard(height, width);
+        final int[] rows = in.readInts();
+        final int[] columns = in.readInts();
+        //the board only blocks a row together with a column, so the two lists are paired again
+        if (rows.length == 0 != (columns.length == 0)) {
+            throw new IOException("Blocked rows and columns must come in pairs");
+        }
+        for (int i = 0; i < Math.max(rows.length, columns.length); i++) {
+            final int row = rows[Math.min(i, rows.length - 1)];
+            board.addBlocked(new Coordinate(row, columns[Math.min(i, columns.length - 1)]));
+        }
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                final Tile tile = readTile(in);
+                if (tile != null) {
+                    board.insertTile(new Coordinate(row, column), tile);
+                }
+            }
+        }
+        return board;
+    }
+
+    private static void checkSize(final ByteBuffer buffer) {
+        if (buffer.capacity() < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer of " + buffer.capacity() + " bytes, at least "
+                + MIN_BUFFER_SIZE + " are needed");
+        }
+    }
+
+    private static void writeTile(final Output out, final Tile tile) throws IOException {
+        if (tile == null) {
+            out.buffer.put((byte) (KIND_EMPTY << KIND_SHIFT));
+            return;
+        }
+        int header = tile.getPatternMask() | (tile.isDiscovered() ? DISCOVERED : 0);
+        if (tile instanceof SourceTile) {
+            final SourceTile source = (SourceTile) tile;
+            out.buffer.put((byte) (header | KIND_SOURCE << KIND_SHIFT | EXTRA));
+            out.buffer.put((byte) source.getMaterialType().ordinal());
+            out.writeInt(source.getTurnsToWait());
+            out.writeInt(source.getQuantity());
+            out.writeInt(source.getRemainingCooldown());
+        } else if (tile instanceof GuildTile) {
+            final GuildTile guild = (GuildTile) tile;
+            header |= KIND_GUILD << KIND_SHIFT | (guild.isVisited() ? EXTRA : 0);
+            out.buffer.put((byte) header);
+            out.writeInt(guild.getMaxPoints());
+        } else if (tile instanceof StandardTile) {
+            final Optional<Material> bonus = ((StandardTile) tile).getBonusMaterial();
+            out.buffer.put((byte) (header | KIND_STANDARD << KIND_SHIFT | (bonus.isPresent() ? EXTRA : 0)));
+            if (bonus.isPresent()) {
+                out.buffer.put((byte) bonus.get().ordinal());
+                out.writeInt(((StandardTile) tile).getBonusAmount());
+            }
+        } else {
+            throw new IOException("Unknown tile " + tile.getClass().getName());
+        }
+    }
+
+    private static Tile readTile(final Input in) throws IOException {
+        in.require(MAX_CELL);
+        final int header = in.readByte() & 0xFF;
+        final int kind = header >>> KIND_SHIFT & KIND_MASK;
+        final boolean extra = (header & EXTRA) != 0;
+        final Tile tile;
+        switch (kind) {
+            case KIND_EMPTY:
+                return null;
+            case KIND_SOURCE:
+                tile = new SourceTile(in.readMaterial(), in.readInt(), in.readInt(), in.readInt());
+                break;
+            case KIND_GUILD:
+                tile = new GuildTile(in.readInt(), extra);
+                break;
+            default:
+                tile = extra ? new StandardTile(in.readMaterial(), in.readInt()) : new StandardTile();
+                break;
+        }
+        tile.setPatternMask(header);
+        if ((header & DISCOVERED) != 0) {
+            tile.discover();
+        }
+        return tile;
+    }
+
+    /**
+     * Buffer in front of a channel, emptied when it cannot hold the next value.
+     */
+    private static final class Output {
+        private final ByteBuffer buffer;
+        private final WritableByteChannel channel;
+
+        Output(final ByteBuffer buffer, final WritableByteChannel channel) {
+            this.buffer = buffer;
+            this.channel = channel;
+        }
+
+        void require(final int bytes) throws IOException {
+            if (this.buffer.remaining() < bytes) {
+                this.flush();
+            }
+        }
+
+        void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        /**
+         * Zigzag variable-length int: small values, positive or negative, take one byte.
+         */
+        void writeInt(final int value) throws IOException {
+            this.require(MAX_VARINT);
+            int bits = value << 1 ^ value >> (Integer.SIZE - 1);
+            while ((bits & ~VARINT_DATA) != 0) {
+                this.buffer.put((byte) (bits & VARINT_DATA | VARINT_MORE));
+                bits >>>= VARINT_BITS;
+            }
+            this.buffer.put((byte) bits);
+        }
+
+        void writeSet(final Set<Integer> values) throws IOException {
+            this.writeInt(values.size());
+            for (final int value : values) {
+                this.writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * Buffer refilled from a channel when it does not hold the next value, if there is a channel.
+     */
+    private static final class Input {
+        private final ByteBuffer buffer;
+        private final ReadableByteChannel channel;
+        private boolean ended;
+
+        Input(final ByteBuffer buffer, final ReadableByteChannel channel) {
+            this.buffer = buffer;
+            this.channel = channel;
+        }
+
+        /**
+         * Makes sure that the buffer holds the given number of bytes, unless the channel has ended:
+         * the last value of a board can be shorter than the maximum size.
+         */
+        void require(final int bytes) throws IOException {
+            if (this.channel == null || this.ended || this.buffer.remaining() >= bytes) {
+                return;
+            }
+            this.buffer.compact();
+            while (this.buffer.position() < bytes && !this.ended) {
+                this.ended = this.channel.read(this.buffer) < 0;
+            }
+            this.buffer.flip();
+        }
+
+        int readInt() throws IOException {
+            this.require(MAX_VARINT);
+            int bits = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += VARINT_BITS) {
+                final int next = this.readByte();
+                bits |= (next & VARINT_DATA) << shift;
+                if ((next & VARINT_MORE) == 0) {
+                    return bits >>> 1 ^ -(bits & 1);
+                }
+            }
+            throw new IOException("Invalid number");
+        }
+
+        int[] readInts() throws IOException {
+            final int count = this.readInt();
+            if (count < 0) {
+                throw new IOException("Invalid count " + count);
+            }
+            final int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = this.readInt();
+            }
+            return values;
+        }
+
+        byte readByte() throws IOException {
+            this.require(1);
+            if (!this.buffer.hasRemaining()) {
+                throw new EOFException();
+            }
+            return this.buffer.get();
+        }
+
+        Material readMaterial() throws IOException {
+            final int ordinal = this.readByte();
+            if (ordinal < 0 || ordinal >= MATERIALS.length) {
+                throw new IOException("Invalid material " + ordinal);
+            }
+            return MATERIALS[ordinal];
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ccdr.labyrinth.game.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.ccdr.labyrinth.game.tiles.Board;
+
+/**
+ * A file with many boards, each one identified by a number chosen when it is added,
+ * for example the seed that generated it.
+ * The boards, in the format of {@link BoardCodec}, are followed by an index of (id, offset) couples sorted by id.
+ * The file is mapped in memory when opened, so reading a board only decodes its own bytes,
+ * and finding it by id is a binary search on the index: nothing else is read from the file.
+ * The mapping is read only and every read works on its own view of it, so a library can be shared by many threads.
+ * Mapped files are limited to 2 GiB.
+ */
+public final class BoardLibrary {
+    /**
+     * First bytes of every library file.
+     */
+    public static final int MAGIC = 0x4C42_4C42;
+    /**
+     * Version of the library layout, increased when it changes.
+     */
+    public static final byte VERSION = 1;
+    //magic, version, number of boards, position of the index
+    private static final int HEADER = Integer.BYTES + 1 + Integer.BYTES + Long.BYTES;
+    private static final int ENTRY = Long.BYTES * 2;
+    private final ByteBuffer file;
+    private final int size;
+    private final int index;
+
+    private BoardLibrary(final ByteBuffer file, final int size, final int index) {
+        this.file = file;
+        this.size = size;
+        this.index = index;
+    }
+
+    /**
+     * Maps a library file in memory, the file can be closed or moved afterwards.
+     * @param path the library file.
+     * @return the library.
+     * @throws IOException if the file cannot be read or is not a library.
+     */
+    public static BoardLibrary open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Library too large to be mapped: " + path);
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.limit() < HEADER || mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a board library: " + path);
+            }
+            if (mapped.get(Integer.BYTES) != VERSION) {
+                throw new IOException("Unsupported library version " + mapped.get(Integer.BYTES));
+            }
+            final int size = mapped.getInt(Integer.BYTES + 1);
+            final long index = mapped.getLong(Integer.BYTES + 1 + Integer.BYTES);
+            if (size < 0 || index < HEADER || index + (long) size * ENTRY != mapped.limit()) {
+                throw new IOException("Corrupted board library: " + path);
+            }
+            return new BoardLibrary(mapped, size, (int) index);
+        }
+    }
+
+    /**
+     * Creates a library file, or replaces it.
+     * @param path the library file.
+     * @return a writer that adds boards to the file, the library is complete once it is closed.
+     * @throws IOException if the file cannot be written.
+     */
+    public static Writer create(final Path path) throws IOException {
+        return new Writer(FileChannel.open(path, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * @return how many boards are in the library.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param position position of the board in the index, from 0 to {@link #size()} excluded.
+     * @return the id of the board.
+     */
+    public long getId(final int position) {
+        return this.file.getLong(this.entry(position));
+    }
+
+    /**
+     * @param position position of the board in the index, from 0 to {@link #size()} excluded.
+     * @return a new copy of the board, ready to be played.
+     * @throws IOException if the stored board is corrupted.
+     */
+    public Board get(final int position) throws IOException {
+        final int offset = (int) this.file.getLong(this.entry(position) + Long.BYTES);
+        if (offset < HEADER || offset >= this.index) {
+            throw new IOException("Corrupted board offset " + offset);
+        }
+        return BoardCodec.read(this.file.slice(offset, this.index - offset));
+    }
+
+    /**
+     * @param id the id given to the board when it was added.
+     * @return a new copy of the board, or nothing if there is no board with that id.
+     * @throws IOException if the stored board is corrupted.
+     */
+    public Optional<Board> find(final long id) throws IOException {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final long found = this.getId(middle);
+            if (found < id) {
+                low = middle + 1;
+            } else if (found > id) {
+                high = middle - 1;
+            } else {
+                return Optional.of(this.get(middle));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Picks a board for a game, the same seed always gets the same board.
+     * @param seed the seed of the game.
+     * @return a new copy of the board.
+     * @throws IOException if the stored board is corrupted.
+     */
+    public Board forSeed(final long seed) throws IOException {
+        if (this.size == 0) {
+            throw new IllegalStateException("The library is empty");
+        }
+        return this.get((int) Math.floorMod(seed, (long) this.size));
+    }
+
+    private int entry(final int position) {
+        if (position < 0 || position >= this.size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return this.index + position * ENTRY;
+    }
+
+    /**
+     * Writes the boards one after the other while they are added, and the index when closed.
+     */
+    public static final class Writer implements Closeable {
+        private static final int INITIAL_ENTRIES = 16;
+        private final FileChannel channel;
+        //shared by all the boards, a library holds many of them
+        private final ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.BUFFER_SIZE);
+        private long[] ids = new long[INITIAL_ENTRIES];
+        private long[] offsets = new long[INITIAL_ENTRIES];
+        private int count;
+
+        private Writer(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.channel.position(HEADER);
+        }
+
+        /**
+         * @param id a number that identifies the board, no two boards can have the same.
+         * @param board the board to store, in its current state.
+         * @throws IOException if the file cannot be written.
+         */
+        public void add(final long id, final Board board) throws IOException {
+            if (this.count == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.count * 2);
+                this.offsets = Arrays.copyOf(this.offsets, this.count * 2);
+            }
+            this.ids[this.count] = id;
+            this.offsets[this.count] = this.channel.position();
+            this.count++;
+            BoardCodec.write(board, this.buffer, this.channel);
+        }
+
+        /**
+         * Writes the index and the header, the library can be opened afterwards.
+         * @throws IOException if the file cannot be written, or two boards have the same id.
+         */
+        @Override
+        public void close() throws IOException {
+            try (FileChannel file = this.channel) {
+                final Integer[] order = new Integer[this.count];
+                Arrays.setAll(order, i -> i);
+                Arrays.sort(order, (first, second) -> Long.compare(this.ids[first], this.ids[second]));
+                final long index = file.position();
+                final ByteBuffer entries = ByteBuffer.allocate(this.count * ENTRY);
+                for (int i = 0; i < this.count; i++) {
+                    if (i > 0 && this.ids[order[i]] == this.ids[order[i - 1]]) {
+                        throw new IOException("Two boards with id " + this.ids[order[i]]);
+                    }
+                    entries.putLong(this.ids[order[i]]).putLong(this.offsets[order[i]]);
+                }
+                writeFully(file, entries.flip(), index);
+                final ByteBuffer header = ByteBuffer.allocate(HEADER)
+                    .putInt(MAGIC).put(VERSION).putInt(this.count).putLong(index);
+                writeFully(file, header.flip(), 0);
+            }
+        }
+
+        private static void writeFully(final FileChannel file, final ByteBuffer buffer, final long position)
+            throws IOException {
+            long at = position;
+            while (buffer.hasRemaining()) {
+                at += file.write(buffer, at);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Map;
 import java.util.Set;
 
 import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
 
 /**
  * The Board interface represents a labyrinth, and outlines the criteria for operation and interactions with it.
@@ -11,12 +12,38 @@ import com.ccdr.labyrinth.game.util.Coordinate;
  * Some rows and columns are blocked, that means the player can't interact with them.
  * If a row or a column is blocked means that contains one special tile. 
  */
-public interface Board {
+public interface Board extends Passages {
     /**
      * @return actual tile collection that represents the labyrinth.
      */
     Map<Coordinate, Tile> getMap();
 
+    /**
+     * Direct access to one tile of the labyrinth, without going through the map view.
+     * @param row the row index of the tile.
+     * @param column the column index of the tile.
+     * @return the tile at the given position, or null if there is no tile there.
+     */
+    Tile getTile(int row, int column);
+
+    /**
+     * Direct access to one tile of the labyrinth, without going through the map view.
+     * @param coordinate the position of the tile.
+     * @return the tile at the given position, or null if there is no tile there.
+     */
+    Tile getTile(Coordinate coordinate);
+
+    @Override
+    default boolean hasTile(final int row, final int column) {
+        return this.getTile(row, column) != null;
+    }
+
+    @Override
+    default boolean isOpen(final int row, final int column, final Direction access) {
+        final Tile tile = this.getTile(row, column);
+        return tile != null && tile.isOpen(access);
+    }
+
     /** 
     * @return the blocked columns index collection.
     */
@@ -94,4 +121,11 @@ public interface Board {
      * @param actual the coordinate of the tile to rotate.
      */
     void rotateCounterClockWiseTile(Coordinate actual);
+
+    /**
+     * Tells the board that a tile has changed by itself, like a source that gave its materials,
+     * so that what the board computes from its tiles stays up to date.
+     * @param coordinate the coordinate of the changed tile.
+     */
+    void tileChanged(Coordinate coordinate);
 }
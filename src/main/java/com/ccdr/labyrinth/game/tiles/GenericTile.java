@@ -1,17 +1,16 @@
 package com.ccdr.labyrinth.game.tiles;
 
 import java.util.Map;
-import java.util.HashMap;
-import java.util.function.Function;
 
 import com.ccdr.labyrinth.game.util.Direction;
 
 /**
  * A GenericTile is an abstract implementation of the Tile interface that implements all common methods
  * and represents the super class of all tile variants.
+ * The open directions are packed in a single int, one bit for each direction (see {@link Direction#mask()}).
  */
 public abstract class GenericTile implements Tile {
-    private final Map<Direction, Boolean> pattern = new HashMap<>();
+    private int pattern;
     private boolean discovered;
 
     @Override
@@ -26,34 +25,43 @@ public abstract class GenericTile implements Tile {
 
     @Override
     public final boolean isOpen(final Direction access) {
-        return pattern.get(access);
+        return (pattern & access.mask()) != 0;
     }
 
     @Override
     public final void setPattern(final Map<Direction, Boolean> readedPattern) {
         for (final var e : readedPattern.entrySet()) {
-            pattern.put(e.getKey(), e.getValue());
+            if (e.getValue()) {
+                pattern |= e.getKey().mask();
+            } else {
+                pattern &= ~e.getKey().mask();
+            }
         }
     }
 
     @Override
     public final Map<Direction, Boolean> getPattern() {
-        return Map.copyOf(pattern);
+        return Map.of(
+            Direction.UP, this.isOpen(Direction.UP),
+            Direction.RIGHT, this.isOpen(Direction.RIGHT),
+            Direction.DOWN, this.isOpen(Direction.DOWN),
+            Direction.LEFT, this.isOpen(Direction.LEFT)
+        );
+    }
+
+    @Override
+    public final int getPatternMask() {
+        return pattern;
+    }
+
+    @Override
+    public final void setPatternMask(final int mask) {
+        this.pattern = mask & Direction.ALL_OPEN;
     }
 
     @Override
     public final void rotate(final boolean clockwise) {
-        final Map<Direction, Boolean> rotated = new HashMap<>();
-        Function<Direction, Direction> action;
-        if (clockwise) {
-            action = (e) -> e.prev();
-        } else {
-            action = (e) -> e.next();
-        }
-        for (final Direction e : pattern.keySet()) {
-            rotated.put(e, pattern.get(action.apply(e)));
-        }
-        this.setPattern(rotated);
+        pattern = Direction.rotateMask(pattern, clockwise);
     }
 
 }
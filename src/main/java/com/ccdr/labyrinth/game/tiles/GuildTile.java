@@ -18,6 +18,32 @@ public class GuildTile extends GenericTile {
         this.discover();
     }
 
+    /**
+     * Restores a guild tile in the middle of a game.
+     * @param maxPoints
+     * @param visited true if a player has already entered the guild
+     */
+    public GuildTile(final int maxPoints, final boolean visited) {
+        this(maxPoints);
+        this.state = visited;
+    }
+
+    /**
+     *
+     * @return max points given by the missions
+     */
+    public final int getMaxPoints() {
+        return this.maxPoints;
+    }
+
+    /**
+     *
+     * @return true if a player has already entered the guild
+     */
+    public final boolean isVisited() {
+        return this.state;
+    }
+
     /**
      *
      */
@@ -0,0 +1,36 @@
+package com.ccdr.labyrinth.game.tiles;
+
+import com.ccdr.labyrinth.game.util.Direction;
+
+/**
+ * A read-only view of where the labyrinth can be walked: its size, which cells hold a tile
+ * and which sides of each tile are open.
+ * It is all that a search of the paths needs, so the same search works on the live {@link Board}
+ * and on a copy of it, like the snapshot given to the computer players.
+ */
+public interface Passages {
+    /**
+     * @return the labyrinth height.
+     */
+    int getHeight();
+
+    /**
+     * @return the labyrinth width.
+     */
+    int getWidth();
+
+    /**
+     * @param row the row index of the cell.
+     * @param column the column index of the cell.
+     * @return true if there is a tile in the cell.
+     */
+    boolean hasTile(int row, int column);
+
+    /**
+     * @param row the row index of the tile.
+     * @param column the column index of the tile.
+     * @param access the side to check.
+     * @return true if the tile is open on the given side, false if it is closed or if there is no tile.
+     */
+    boolean isOpen(int row, int column, Direction access);
+}
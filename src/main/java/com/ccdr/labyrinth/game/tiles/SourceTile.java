@@ -46,6 +46,20 @@ public final class SourceTile extends GenericTile {
         this.discover();
     }
 
+    /**
+     * Restores a source tile in the middle of a game.
+     * @param assignedMaterial Material type that this source must generate
+     * @param waitingTurns how many turns is this source locked after giving materials
+     * @param quantity quantity of materials stored inside
+     * @param remainingCooldown turns left before the source becomes active again
+     */
+    public SourceTile(final Material assignedMaterial, final int waitingTurns, final int quantity,
+        final int remainingCooldown) {
+        this(assignedMaterial, waitingTurns);
+        this.quantity = quantity;
+        this.remainingCooldown = remainingCooldown;
+    }
+
     /**
      * this function must be called after every player's end of turn.
      */
@@ -86,6 +100,20 @@ public final class SourceTile extends GenericTile {
         return this.quantity;
     }
 
+    /**
+     * @return how many turns this source is locked after giving materials
+     */
+    public int getTurnsToWait() {
+        return this.turnsToWait;
+    }
+
+    /**
+     * @return turns left before the source becomes active again
+     */
+    public int getRemainingCooldown() {
+        return this.remainingCooldown;
+    }
+
     /**
      * @return material type that this source tile generates
      */
@@ -44,6 +44,13 @@ public final class StandardTile extends GenericTile {
     @Override
     public void onExit(final Player player) { }
 
+    /**
+     * @return quantity of bonus materials given to the first player that enters the tile
+     */
+    public int getBonusAmount() {
+        return this.bonusAmount;
+    }
+
     /**
      * @return Full optional if the tile has some bonus materials, empty otherwise
      */
@@ -58,4 +58,18 @@ public interface Tile {
      * @return the actual assigned tile pattern.
      */
     Map<Direction, Boolean> getPattern();
+
+    /**
+     * Give the tile pattern packed in the lowest four bits, one bit for each open direction.
+     * @return the actual assigned tile pattern as a bitmask.
+     * @see Direction#mask()
+     */
+    int getPatternMask();
+
+    /**
+     * Assign the given packed pattern to the tile.
+     * @param mask pattern to assign, one bit for each open direction.
+     * @see Direction#mask()
+     */
+    void setPatternMask(int mask);
 }
@@ -21,6 +21,75 @@ public enum Direction {
      */
     LEFT;
 
+    /**
+     * Number of directions.
+     */
+    public static final int COUNT = 4;
+    /**
+     * Number of bits used by a packed tile pattern, one for each direction.
+     */
+    public static final int PATTERN_BITS = COUNT;
+    /**
+     * Packed tile pattern with every direction open.
+     */
+    public static final int ALL_OPEN = (1 << PATTERN_BITS) - 1;
+
+    /**
+     * Gives the bit that represents this direction inside a packed tile pattern.
+     * Bits follow the clockwise order of the constants, so rotating a pattern is a bit rotation.
+     * @return the mask of this direction.
+     */
+    public int mask() {
+        return 1 << this.ordinal();
+    }
+
+    /**
+     * Turns a pattern a quarter: clockwise every direction takes the state of its counterclockwise
+     * neighbour, that is the previous bit.
+     * @param mask a pattern of open directions, see {@link #mask()}.
+     * @param clockwise true to turn clockwise, false to turn counterclockwise.
+     * @return the turned pattern.
+     */
+    public static int rotateMask(final int mask, final boolean clockwise) {
+        final int bits = PATTERN_BITS - 1;
+        return (clockwise ? mask << 1 | mask >>> bits : mask >>> 1 | mask << bits) & ALL_OPEN;
+    }
+
+    //row and column offsets of a move, indexed by direction
+    private static final int[] ROW_STEPS = {-1, 0, 1, 0};
+    private static final int[] COLUMN_STEPS = {0, 1, 0, -1};
+    //values() gives a new array every time, searches ask for directions by index in their inner loops
+    private static final Direction[] VALUES = values();
+
+    /**
+     * @return how the row changes with a move in this direction: -1 up, 1 down, 0 sideways.
+     */
+    public int rowStep() {
+        return ROW_STEPS[this.ordinal()];
+    }
+
+    /**
+     * @return how the column changes with a move in this direction: -1 left, 1 right, 0 up or down.
+     */
+    public int columnStep() {
+        return COLUMN_STEPS[this.ordinal()];
+    }
+
+    /**
+     * @return the direction that goes back where a move in this direction came from.
+     */
+    public Direction opposite() {
+        return VALUES[(this.ordinal() + 2) % COUNT];
+    }
+
+    /**
+     * @param index the position of the direction in clockwise order, from 0 to {@link #COUNT} excluded.
+     * @return the direction, without copying the array of {@link #values()}.
+     */
+    public static Direction of(final int index) {
+        return VALUES[index];
+    }
+
     /**
      * Depending on the instance of the object calling this method,
      * this method returns the value of the next clockwise direction.
@@ -1,6 +1,8 @@
 package com.ccdr.labyrinth.menu;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -24,12 +26,17 @@ public final class MenuController implements Executor, MenuInputs {
     // multiple callbacks are activated.
     private Consumer<GameConfig> onPlay = config -> { };
     private Runnable onExit = () -> { };
+    private Consumer<GameConfig> onConfigChanged = config -> { };
+    private GameConfig notifiedConfig;
+    //seed of the last game started from this menu, so that it can be played again
+    private Long lastSeed;
 
 
     @Override
     public void onEnable() {
         this.config = new GameConfig();
         current = createMenuStructure();
+        this.notifyConfigChanged();
         for (final MenuView view : views) {
             view.onEnable();
         }
@@ -65,6 +72,14 @@ public final class MenuController implements Executor, MenuInputs {
         this.onExit = callback;
     }
 
+    /**
+     * @param callback function to run every time the configuration of the next game changes,
+     * for example to start generating it in advance
+     */
+    public void onConfigChanged(final Consumer<GameConfig> callback) {
+        this.onConfigChanged = callback;
+    }
+
     //Functions called externally, in order to actually the menu
     /**
      * Up event received from the user, to then dispatch where necessary.
@@ -91,6 +106,7 @@ public final class MenuController implements Executor, MenuInputs {
     public void select() {
         current = current.nextState();
         current.immediate();
+        this.notifyConfigChanged();
         sendChangeToViews();
     }
 
@@ -105,6 +121,13 @@ public final class MenuController implements Executor, MenuInputs {
         sendChangeToViews();
     }
 
+    private void notifyConfigChanged() {
+        if (!this.config.equals(this.notifiedConfig)) {
+            this.notifiedConfig = new GameConfig(this.config);
+            this.onConfigChanged.accept(this.config);
+        }
+    }
+
     // functions related to menu movement
     private void sendChangeToViews() {
         for (final MenuView view : views) {
@@ -112,9 +135,31 @@ public final class MenuController implements Executor, MenuInputs {
         }
     }
 
+    /**
+     * A choice of the seed menu: a new random one, or the one of the previous game to play it again.
+     */
+    private record SeedChoice(String label, long seed) {
+        @Override
+        public String toString() {
+            return this.label;
+        }
+    }
+
+    private List<SeedChoice> seedChoices() {
+        final List<SeedChoice> choices = new ArrayList<>();
+        choices.add(new SeedChoice("Random (" + this.config.getSeed() + ")", this.config.getSeed()));
+        if (this.lastSeed != null) {
+            choices.add(new SeedChoice("Previous game (" + this.lastSeed + ")", this.lastSeed));
+        }
+        return choices;
+    }
+
     private MenuElement createMenuStructure() {
         return new MenuListElement("",
-            new MenuButtonElement("Play", () -> onPlay.accept(config)),
+            new MenuButtonElement("Play", () -> {
+                this.lastSeed = this.config.getSeed();
+                onPlay.accept(config);
+            }),
             new MenuListElement("Configuration",
                 new MenuChoiceElement<>("Players", GameConfig.PLAYER_COUNT_OPTIONS)
                     .defaultIndex(0)
@@ -127,7 +172,10 @@ public final class MenuController implements Executor, MenuInputs {
                     }),
                 new MenuChoiceElement<>("Source Tiles", GameConfig.SOURCE_OPTIONS)
                     .defaultIndex(1)
-                    .action(count -> this.config.setSourceTiles(count))
+                    .action(count -> this.config.setSourceTiles(count)),
+                new MenuChoiceElement<>("Seed", this.seedChoices())
+                    .defaultIndex(0)
+                    .action(choice -> this.config.setSeed(choice.seed()))
             ),
             new MenuTextElement("How to play", new StringBuilder()
                 .append("Every turn is structured as following:\n\n")
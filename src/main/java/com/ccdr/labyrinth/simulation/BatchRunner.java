@@ -0,0 +1,93 @@
+package com.ccdr.labyrinth.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+
+/**
+ * Plays many independent games at the same time and collects their statistics.
+ * Every game owns its sources of randomness, derived from a single seed before any game starts,
+ * so a batch gives the same results no matter how the games are scheduled on the threads.
+ */
+public final class BatchRunner {
+    private final HeadlessRunner runner;
+    private final int threads;
+
+    /**
+     * Creates a batch runner that uses one thread per available processor.
+     * @param runner the runner used to play every single game
+     */
+    public BatchRunner(final HeadlessRunner runner) {
+        this(runner, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param runner the runner used to play every single game
+     * @param threads how many games are played at the same time
+     */
+    public BatchRunner(final HeadlessRunner runner, final int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.runner = runner;
+        this.threads = threads;
+    }
+
+    /**
+     * Plays a batch of games and waits for all of them.
+     * @param config parameters of every game, it must not be changed while the batch runs
+     * @param games how many games to play
+     * @param seed seed of the whole batch
+     * @param players creates the input source of a game, given its own source of randomness
+     * @return the results of the games, in the order of their seeds
+     */
+    public List<GameResult> play(final GameConfig config, final int games, final long seed,
+        final Function<Random, InputSource> players) {
+        final SplittableRandom seeds = new SplittableRandom(seed);
+        final List<Callable<GameResult>> tasks = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            final long gameSeed = seeds.nextLong();
+            final long playerSeed = seeds.nextLong();
+            tasks.add(() -> this.runner.run(new GameSession(config, gameSeed),
+                players.apply(new Random(playerSeed))));
+        }
+        final ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        try {
+            final List<GameResult> results = new ArrayList<>(games);
+            for (final Future<GameResult> result : pool.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a batch of games and aggregates their results.
+     * @param config parameters of every game, it must not be changed while the batch runs
+     * @param games how many games to play
+     * @param seed seed of the whole batch
+     * @param players creates the input source of a game, given its own source of randomness
+     * @return the statistics of the batch
+     */
+    public BatchStats run(final GameConfig config, final int games, final long seed,
+        final Function<Random, InputSource> players) {
+        return BatchStats.of(this.play(config, games, seed, players));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ccdr.labyrinth.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * Aggregated statistics of a batch of games.
+ * @param games how many games have been played
+ * @param finished how many games ended with every mission completed
+ * @param winRates fraction of the games won by each player, by turn order
+ * @param averageTurns average number of turns of a game
+ * @param averageMissionTurn average turn in which a mission gets completed
+ * @param collected total quantity of every material picked up by the players
+ * @param spent total quantity of every material given to the guild
+ */
+public record BatchStats(int games, int finished, List<Double> winRates, double averageTurns,
+    double averageMissionTurn, Map<Material, Long> collected, Map<Material, Long> spent) {
+    /**
+     * @param games how many games have been played
+     * @param finished how many games ended with every mission completed
+     * @param winRates fraction of the games won by each player
+     * @param averageTurns average number of turns of a game
+     * @param averageMissionTurn average turn in which a mission gets completed
+     * @param collected total quantity of every material picked up
+     * @param spent total quantity of every material given to the guild
+     */
+    public BatchStats {
+        winRates = List.copyOf(winRates);
+        collected = Map.copyOf(collected);
+        spent = Map.copyOf(spent);
+    }
+
+    /**
+     * @param results the results of the games
+     * @return the statistics of the given games
+     */
+    public static BatchStats of(final List<GameResult> results) {
+        final int players = results.stream().mapToInt(r -> r.points().size()).max().orElse(0);
+        final List<Integer> wins = new ArrayList<>(Collections.nCopies(players, 0));
+        final Map<Material, Long> collected = new EnumMap<>(Material.class);
+        final Map<Material, Long> spent = new EnumMap<>(Material.class);
+        int finished = 0;
+        long turns = 0;
+        long missionTurns = 0;
+        long missions = 0;
+        for (final GameResult result : results) {
+            wins.set(result.winner(), wins.get(result.winner()) + 1);
+            finished += result.finished() ? 1 : 0;
+            turns += result.turns();
+            for (final int turn : result.missionTurns()) {
+                missionTurns += turn;
+                missions++;
+            }
+            //whatever has been spent or is still held has been collected at some point
+            result.spent().forEach((m, q) -> {
+                spent.merge(m, (long) q, Long::sum);
+                collected.merge(m, (long) q, Long::sum);
+            });
+            result.held().forEach((m, q) -> collected.merge(m, (long) q, Long::sum));
+        }
+        final int games = results.size();
+        return new BatchStats(
+            games,
+            finished,
+            wins.stream().map(w -> games == 0 ? 0.0 : (double) w / games).toList(),
+            games == 0 ? 0 : (double) turns / games,
+            missions == 0 ? 0 : (double) missionTurns / missions,
+            collected,
+            spent
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.ccdr.labyrinth.simulation;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * Outcome of a game played by the {@link HeadlessRunner}.
+ * @param points final points of every player, in turn order
+ * @param missionTurns the turn in which each completed mission has been completed, in completion order
+ * @param turns how many turns have been played
+ * @param inputs how many inputs have been applied
+ * @param spent quantity of every material given to the guild to complete missions
+ * @param held quantity of every material still owned by the players at the end
+ * @param finished true if the game ended because every mission was completed,
+ * false if the runner stopped it when the input budget ran out
+ */
+public record GameResult(List<Integer> points, List<Integer> missionTurns, int turns, int inputs,
+    Map<Material, Integer> spent, Map<Material, Integer> held, boolean finished) {
+    /**
+     * @param points final points of every player, in turn order
+     * @param missionTurns the turn in which each completed mission has been completed
+     * @param turns how many turns have been played
+     * @param inputs how many inputs have been applied
+     * @param spent quantity of every material given to the guild
+     * @param held quantity of every material still owned by the players
+     * @param finished true if every mission was completed
+     */
+    public GameResult {
+        points = List.copyOf(points);
+        missionTurns = List.copyOf(missionTurns);
+        spent = Map.copyOf(spent);
+        held = Map.copyOf(held);
+    }
+
+    /**
+     * @return how many missions have been completed
+     */
+    public int completedMissions() {
+        return this.missionTurns.size();
+    }
+
+    /**
+     * @return the index of the player with the most points, the first one in turn order on a tie
+     */
+    public int winner() {
+        int best = 0;
+        for (int i = 1; i < this.points.size(); i++) {
+            if (this.points.get(i) > this.points.get(best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ccdr.labyrinth.simulation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.player.Player;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.game.util.Material;
+
+/**
+ * Plays whole games without the engine, the views or JavaFX, as fast as the input source allows.
+ * Every input is applied synchronously to a {@link GameSession}, so many runners can work
+ * at the same time on different threads.
+ */
+public final class HeadlessRunner {
+    /**
+     * Default upper bound of inputs in a single game.
+     */
+    public static final int DEFAULT_MAX_INPUTS = 1_000_000;
+
+    private final int maxInputs;
+
+    /**
+     * Creates a runner that stops games after {@link #DEFAULT_MAX_INPUTS} inputs.
+     */
+    public HeadlessRunner() {
+        this(DEFAULT_MAX_INPUTS);
+    }
+
+    /**
+     * @param maxInputs inputs after which a game that is not over is stopped,
+     * since random or buggy players may never complete the missions
+     */
+    public HeadlessRunner(final int maxInputs) {
+        if (maxInputs <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxInputs = maxInputs;
+    }
+
+    /**
+     * Generates a new game and plays it until it is over.
+     * @param config parameters of the game
+     * @param source the player of every turn
+     * @return the outcome of the game
+     */
+    public GameResult run(final GameConfig config, final InputSource source) {
+        return this.run(new GameSession(config), source);
+    }
+
+    /**
+     * Plays an already created game until it is over.
+     * @param session the game to play
+     * @param source the player of every turn
+     * @return the outcome of the game
+     */
+    public GameResult run(final GameSession session, final InputSource source) {
+        final List<Integer> missionTurns = new ArrayList<>();
+        final List<Item> completed = session.getGuildContext().getMissionCompl();
+        while (!session.isOver() && session.getInputCount() < this.maxInputs) {
+            final int before = session.getInputCount();
+            source.next(session);
+            if (session.getInputCount() == before) {
+                //the source did nothing, it would do the same forever
+                break;
+            }
+            while (missionTurns.size() < completed.size()) {
+                missionTurns.add(session.getTurnCount());
+            }
+        }
+        final Map<Material, Integer> spent = new EnumMap<>(Material.class);
+        for (final Item mission : completed) {
+            spent.merge(mission.getMaterial(), mission.getQuantity(), Integer::sum);
+        }
+        final List<Player> players = session.getPlayersContext().getPlayers();
+        final Map<Material, Integer> held = new EnumMap<>(Material.class);
+        for (final Material material : Material.values()) {
+            held.put(material, players.stream().mapToInt(p -> p.getQuantityMaterial(material)).sum());
+        }
+        return new GameResult(
+            players.stream().map(Player::getPoints).toList(),
+            missionTurns,
+            session.getTurnCount(),
+            session.getInputCount(),
+            spent,
+            held,
+            session.getGuildContext().getListOfMissions().isEmpty()
+        );
+    }
+}
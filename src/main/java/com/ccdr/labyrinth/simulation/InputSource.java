@@ -0,0 +1,16 @@
+package com.ccdr.labyrinth.simulation;
+
+import com.ccdr.labyrinth.game.GameSession;
+
+/**
+ * Something that plays a game without a keyboard: a script, a bot or an AI.
+ * @see HeadlessRunner
+ */
+@FunctionalInterface
+public interface InputSource {
+    /**
+     * Applies the next input to the game, by calling one of the input methods of the session.
+     * @param session the game being played, it can be inspected to decide the input
+     */
+    void next(GameSession session);
+}
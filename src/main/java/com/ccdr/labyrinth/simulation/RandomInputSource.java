@@ -0,0 +1,79 @@
+package com.ccdr.labyrinth.simulation;
+
+import java.util.Random;
+
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.context.Context;
+import com.ccdr.labyrinth.game.context.GuildContext;
+import com.ccdr.labyrinth.game.context.LabyrinthContext;
+import com.ccdr.labyrinth.game.context.PlayersContext;
+import com.ccdr.labyrinth.game.context.PlayersContext.Subphase;
+
+/**
+ * Input source that plays random but legal-looking moves, useful as a baseline opponent and for smoke testing.
+ * It always rolls the dice and dismisses the popups, moves in a random direction, shifts or rotates
+ * a random line and tries to complete the first mission every time it enters the guild.
+ */
+public final class RandomInputSource implements InputSource {
+    private static final int DIRECTIONS = 4;
+    //chance of ending the movement early, or of confirming the labyrinth change, for every input
+    private static final double STOP_CHANCE = 0.05;
+
+    private final Random random;
+
+    /**
+     * @param random source of randomness, seed it to make the game reproducible
+     */
+    public RandomInputSource(final Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public void next(final GameSession session) {
+        final Context context = session.getActiveContext();
+        if (context instanceof PlayersContext && ((PlayersContext) context).getTurnSubphase() == Subphase.MOVEMENT
+            || context instanceof LabyrinthContext) {
+            if (this.random.nextDouble() < STOP_CHANCE) {
+                //end the movement, or apply the selected shift/rotation
+                if (context instanceof PlayersContext) {
+                    session.secondary();
+                } else {
+                    session.primary();
+                }
+                return;
+            }
+            if (context instanceof LabyrinthContext && this.random.nextDouble() < STOP_CHANCE) {
+                //switch between shifting and rotating
+                session.secondary();
+                return;
+            }
+            this.move(session);
+        } else if (context instanceof GuildContext) {
+            if (this.random.nextBoolean()) {
+                session.primary();
+            } else {
+                session.back();
+            }
+        } else {
+            //roll the dice, dismiss the turn popup
+            session.primary();
+        }
+    }
+
+    private void move(final GameSession session) {
+        switch (this.random.nextInt(DIRECTIONS)) {
+            case 0:
+                session.up();
+                break;
+            case 1:
+                session.down();
+                break;
+            case 2:
+                session.left();
+                break;
+            default:
+                session.right();
+                break;
+        }
+    }
+}
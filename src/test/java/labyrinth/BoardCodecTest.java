@@ -0,0 +1,127 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.player.Player;
+import com.ccdr.labyrinth.game.player.PlayerImpl;
+import com.ccdr.labyrinth.game.storage.BoardCodec;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.GuildTile;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Material;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class BoardCodecTest {
+    private static final int SIZE = 31;
+    private static final int LARGE_SIZE = 301;
+    private static final int SOURCES = 8;
+    private static final int PLAYERS = 2;
+    private static final int MAX_POINTS = 10;
+    private static final long SEED = 11;
+    private static final List<Material> MATERIALS = List.of(Material.COAL, Material.WOOD, Material.IRON, Material.SILK);
+
+    @Test
+    void roundTrip() throws IOException {
+        final Board board = generate(SIZE);
+        final Player player = new PlayerImpl();
+        //change some state, so that it is not the one of a new board
+        board.discoverNearBy(new Coordinate(0, 0), 2);
+        for (final Tile tile : board.getMap().values()) {
+            if (tile instanceof SourceTile || tile instanceof GuildTile) {
+                tile.onEnter(player);
+                break;
+            }
+        }
+        assertSameBoard(board, BoardCodec.read(Channels.newChannel(new ByteArrayInputStream(encode(board)))));
+        assertSameBoard(board, BoardCodec.read(ByteBuffer.wrap(encode(board))));
+    }
+
+    @Test
+    void largeBoardIsCompact() throws IOException {
+        final Board board = generate(LARGE_SIZE);
+        final byte[] bytes = encode(board);
+        //one byte per cell, plus the bonus materials, that are at most one cell in five
+        Assertions.assertTrue(bytes.length < LARGE_SIZE * LARGE_SIZE * 3 / 2);
+        assertSameBoard(board, BoardCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    void sharedBuffer() throws IOException {
+        final Board first = generate(SIZE);
+        final Board second = generate(LARGE_SIZE);
+        final ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.MIN_BUFFER_SIZE);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BoardCodec.write(first, buffer, Channels.newChannel(out));
+        BoardCodec.write(second, buffer, Channels.newChannel(out));
+        //both boards are read from the same stream, the bytes of the second read with the first stay in the buffer
+        final var in = Channels.newChannel(new ByteArrayInputStream(out.toByteArray()));
+        buffer.clear().flip();
+        assertSameBoard(first, BoardCodec.read(buffer, in));
+        assertSameBoard(second, BoardCodec.read(buffer, in));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> BoardCodec.write(first, ByteBuffer.allocate(BoardCodec.MIN_BUFFER_SIZE - 1),
+                Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void invalidData() {
+        Assertions.assertThrows(IOException.class, () -> BoardCodec.read(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5})));
+        Assertions.assertThrows(IOException.class, () -> {
+            final byte[] bytes = encode(generate(SIZE));
+            BoardCodec.read(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+        });
+    }
+
+    private static Board generate(final int size) {
+        return new BoardGenerator(size, size, SOURCES, PLAYERS, MATERIALS, new SplittableRandom(SEED))
+            .generate(MAX_POINTS);
+    }
+
+    private static byte[] encode(final Board board) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BoardCodec.write(board, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static void assertSameBoard(final Board expected, final Board actual) {
+        Assertions.assertEquals(expected.getHeight(), actual.getHeight());
+        Assertions.assertEquals(expected.getWidth(), actual.getWidth());
+        Assertions.assertEquals(expected.getBlockedRows(), actual.getBlockedRows());
+        Assertions.assertEquals(expected.getBlockedColumns(), actual.getBlockedColumns());
+        for (int row = 0; row < expected.getHeight(); row++) {
+            for (int column = 0; column < expected.getWidth(); column++) {
+                final Tile first = expected.getTile(row, column);
+                final Tile second = actual.getTile(row, column);
+                Assertions.assertEquals(first.getClass(), second.getClass());
+                Assertions.assertEquals(first.getPatternMask(), second.getPatternMask());
+                Assertions.assertEquals(first.isDiscovered(), second.isDiscovered());
+                if (first instanceof SourceTile) {
+                    final SourceTile source = (SourceTile) first;
+                    final SourceTile read = (SourceTile) second;
+                    Assertions.assertEquals(source.getMaterialType(), read.getMaterialType());
+                    Assertions.assertEquals(source.getQuantity(), read.getQuantity());
+                    Assertions.assertEquals(source.getTurnsToWait(), read.getTurnsToWait());
+                    Assertions.assertEquals(source.isActive(), read.isActive());
+                } else if (first instanceof GuildTile) {
+                    Assertions.assertEquals(((GuildTile) first).isVisited(), ((GuildTile) second).isVisited());
+                    Assertions.assertEquals(((GuildTile) first).getMaxPoints(), ((GuildTile) second).getMaxPoints());
+                } else {
+                    Assertions.assertEquals(((StandardTile) first).getBonusMaterial(),
+                        ((StandardTile) second).getBonusMaterial());
+                }
+            }
+        }
+    }
+}
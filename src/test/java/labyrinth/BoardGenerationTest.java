@@ -5,13 +5,17 @@ import org.junit.jupiter.api.Test;
 
 import com.ccdr.labyrinth.game.generator.BoardGenerator;
 import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
 import com.ccdr.labyrinth.game.util.Material;
 import com.ccdr.labyrinth.game.tiles.Board;
 import com.ccdr.labyrinth.game.tiles.GuildTile;
 import com.ccdr.labyrinth.game.tiles.StandardTile;
 import com.ccdr.labyrinth.game.tiles.SourceTile;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.SplittableRandom;
 
 class BoardGenerationTest {
     private static final int HEIGHT = 15;
@@ -19,6 +23,9 @@ class BoardGenerationTest {
     private static final int SOURCES = 8;
     private static final int PLAYERS = 2;
     private static final int MAX_POINTS = 10;
+    private static final int LARGE_SIZE = 201;
+    private static final int MANY_SOURCES = 64;
+    private static final long SEED = 7;
     private static final List<Material> MATERIALS = List.of(Material.COAL, Material.WOOD, Material.IRON, Material.SILK);
     private final Board maze = new BoardGenerator(HEIGHT, WIDTH, SOURCES, PLAYERS, MATERIALS).generate(MAX_POINTS);
 
@@ -61,4 +68,89 @@ class BoardGenerationTest {
         .count();
         Assertions.assertEquals(correctNumber, generated);
     }
+
+    @Test
+    void largeBoardGenerated() {
+        final Board large = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, SOURCES, PLAYERS, MATERIALS)
+            .generate(MAX_POINTS);
+        for (int row = 0; row < LARGE_SIZE; row++) {
+            for (int column = 0; column < LARGE_SIZE; column++) {
+                Assertions.assertNotNull(large.getTile(row, column));
+            }
+        }
+        Assertions.assertEquals(LARGE_SIZE * LARGE_SIZE, large.getMap().size());
+    }
+
+    @Test
+    void seededGenerationIsReproducible() {
+        final Board first = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, SOURCES, PLAYERS, MATERIALS,
+            new SplittableRandom(SEED)).generate(MAX_POINTS);
+        final Board second = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, SOURCES, PLAYERS, MATERIALS,
+            new SplittableRandom(SEED)).generate(MAX_POINTS);
+        for (int row = 0; row < LARGE_SIZE; row++) {
+            for (int column = 0; column < LARGE_SIZE; column++) {
+                Assertions.assertEquals(first.getTile(row, column).getClass(), second.getTile(row, column).getClass());
+                Assertions.assertEquals(first.getTile(row, column).getPatternMask(),
+                    second.getTile(row, column).getPatternMask());
+            }
+        }
+    }
+
+    @Test
+    void manySourcesGeneration() {
+        final int maxSources = 16;
+        for (long seed = 0; seed < SEED; seed++) {
+            final Board small = new BoardGenerator(HEIGHT, WIDTH, maxSources, PLAYERS, MATERIALS,
+                new SplittableRandom(seed)).generate(MAX_POINTS);
+            Assertions.assertEquals(maxSources, countSources(small));
+        }
+        final Board large = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, MANY_SOURCES, PLAYERS, MATERIALS,
+            new SplittableRandom(SEED)).generate(MAX_POINTS);
+        Assertions.assertEquals(MANY_SOURCES, countSources(large));
+        Assertions.assertTrue(large.getTile(LARGE_SIZE / 2, LARGE_SIZE / 2) instanceof GuildTile);
+    }
+
+    private static long countSources(final Board board) {
+        return board.getMap().values().stream().filter(tile -> tile instanceof SourceTile).count();
+    }
+
+    @Test
+    void connectedGeneration() {
+        final int players = 4;
+        for (long seed = 0; seed < SEED; seed++) {
+            final Board board = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, SOURCES, players, MATERIALS,
+                new SplittableRandom(seed)).connected(true).generate(MAX_POINTS);
+            final boolean[] reached = reachableFrom(board, new Coordinate(LARGE_SIZE / 2, LARGE_SIZE / 2));
+            for (final var e : board.getMap().entrySet()) {
+                if (e.getValue() instanceof SourceTile) {
+                    Assertions.assertTrue(reached[e.getKey().row() * LARGE_SIZE + e.getKey().column()]);
+                }
+            }
+            Assertions.assertTrue(reached[0]);
+            Assertions.assertTrue(reached[LARGE_SIZE - 1]);
+            Assertions.assertTrue(reached[(LARGE_SIZE - 1) * LARGE_SIZE]);
+            Assertions.assertTrue(reached[LARGE_SIZE * LARGE_SIZE - 1]);
+        }
+    }
+
+    private static boolean[] reachableFrom(final Board board, final Coordinate start) {
+        final boolean[] reached = new boolean[board.getHeight() * board.getWidth()];
+        final Deque<Coordinate> queue = new ArrayDeque<>(List.of(start));
+        reached[start.row() * board.getWidth() + start.column()] = true;
+        while (!queue.isEmpty()) {
+            final Coordinate current = queue.poll();
+            for (final Direction d : Direction.values()) {
+                final int row = current.row() + d.rowStep();
+                final int column = current.column() + d.columnStep();
+                if (row >= 0 && row < board.getHeight() && column >= 0 && column < board.getWidth()
+                    && !reached[row * board.getWidth() + column]
+                    && board.getTile(current.row(), current.column()).isOpen(d)
+                    && board.getTile(row, column).isOpen(d.opposite())) {
+                    reached[row * board.getWidth() + column] = true;
+                    queue.add(new Coordinate(row, column));
+                }
+            }
+        }
+        return reached;
+    }
 }
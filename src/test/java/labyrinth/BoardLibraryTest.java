@@ -0,0 +1,103 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.storage.BoardLibrary;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.util.Material;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class BoardLibraryTest {
+    private static final int BOARDS = 200;
+    private static final int SIZE = 15;
+    private static final int SOURCES = 8;
+    private static final int PLAYERS = 2;
+    private static final int MAX_POINTS = 10;
+    private static final int ID_STEP = 7;
+    private static final List<Material> MATERIALS = List.of(Material.COAL, Material.WOOD);
+
+    @Test
+    void storeAndFind() throws IOException {
+        final Path file = Files.createTempFile("boards", ".lib");
+        try {
+            //added in decreasing order of id, the index must be sorted anyway
+            try (BoardLibrary.Writer writer = BoardLibrary.create(file)) {
+                for (int i = BOARDS - 1; i >= 0; i--) {
+                    writer.add(i * ID_STEP, generate(i));
+                }
+            }
+            final BoardLibrary library = BoardLibrary.open(file);
+            Assertions.assertEquals(BOARDS, library.size());
+            for (int i = 0; i < BOARDS; i++) {
+                Assertions.assertEquals(i * ID_STEP, library.getId(i));
+                assertSamePatterns(generate(i), library.find(i * ID_STEP).orElseThrow());
+            }
+            Assertions.assertTrue(library.find(1).isEmpty());
+            Assertions.assertTrue(library.find(-1).isEmpty());
+            Assertions.assertTrue(library.find(BOARDS * ID_STEP).isEmpty());
+            assertSamePatterns(library.get(1), library.forSeed(BOARDS + 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void playStoredBoard() throws IOException {
+        final Path file = Files.createTempFile("boards", ".lib");
+        try {
+            try (BoardLibrary.Writer writer = BoardLibrary.create(file)) {
+                writer.add(0, generate(0));
+            }
+            final GameConfig config = new GameConfig();
+            final GameSession session = new GameSession(config, BoardLibrary.open(file));
+            Assertions.assertEquals(SIZE, session.getBoard().getHeight());
+            //missions only ask for the materials of the stored sources
+            session.getGuildContext().getListOfMissions()
+                .forEach(mission -> Assertions.assertTrue(MATERIALS.contains(mission.getMaterial())));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void duplicateIds() throws IOException {
+        final Path file = Files.createTempFile("boards", ".lib");
+        try {
+            Assertions.assertThrows(IOException.class, () -> {
+                try (BoardLibrary.Writer writer = BoardLibrary.create(file)) {
+                    writer.add(1, generate(0));
+                    writer.add(1, generate(1));
+                }
+            });
+            Files.write(file, new byte[] {1, 2, 3});
+            Assertions.assertThrows(IOException.class, () -> BoardLibrary.open(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Board generate(final long seed) {
+        return new BoardGenerator(SIZE, SIZE, SOURCES, PLAYERS, MATERIALS, new SplittableRandom(seed))
+            .generate(MAX_POINTS);
+    }
+
+    private static void assertSamePatterns(final Board expected, final Board actual) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                Assertions.assertEquals(expected.getTile(row, column).getClass(),
+                    actual.getTile(row, column).getClass());
+                Assertions.assertEquals(expected.getTile(row, column).getPatternMask(),
+                    actual.getTile(row, column).getPatternMask());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.ai.ComputerPlayer;
+import com.ccdr.labyrinth.game.ai.GreedyStrategy;
+import com.ccdr.labyrinth.game.ai.Strategy;
+import com.ccdr.labyrinth.game.ai.Turn;
+import com.ccdr.labyrinth.game.context.PlayersContext;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.simulation.GameResult;
+import com.ccdr.labyrinth.simulation.HeadlessRunner;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class ComputerPlayerTest {
+    private static final int MAX_INPUTS = 20_000;
+    private static final int GAMES = 3;
+    private static final int MAX_CALLS = 1000;
+    private static final long SLOW_MILLIS = 5000;
+    private static final Duration BUDGET = Duration.ofMillis(10);
+    //a call on the engine thread must never wait for the strategy, this is far below the slow strategy
+    private static final long MAX_CALL_MILLIS = 1000;
+
+    @Test
+    void greedyFinishesGames() {
+        for (long seed = 0; seed < GAMES; seed++) {
+            final GameConfig config = new GameConfig();
+            config.setSeed(seed);
+            final GameResult result = new HeadlessRunner(MAX_INPUTS)
+                .run(config, new ComputerPlayer(new GreedyStrategy()));
+            Assertions.assertTrue(result.finished());
+        }
+    }
+
+    @Test
+    void changesThroughContexts() {
+        final GameConfig config = new GameConfig();
+        final int column = lastFreeColumn(new GameSession(config).getBoard());
+        final GameSession played = new GameSession(config);
+        playChange(played, Turn.of(Turn.Change.shiftColumn(column, false)));
+        final GameSession expected = new GameSession(config);
+        expected.getBoard().shiftColumn(column, false);
+        assertSamePatterns(expected.getBoard(), played.getBoard());
+
+        //the first player starts in the top left corner, the tile on its right can be rotated
+        final Coordinate tile = new Coordinate(0, 1);
+        final GameSession rotated = new GameSession(config);
+        playChange(rotated, Turn.of(Turn.Change.rotate(tile, false)));
+        final GameSession expectedRotation = new GameSession(config);
+        expectedRotation.getBoard().rotateCounterClockWiseTile(tile);
+        assertSamePatterns(expectedRotation.getBoard(), rotated.getBoard());
+    }
+
+    @Test
+    void slowStrategyFallsBack() throws InterruptedException {
+        final ExecutorService workers = Executors.newSingleThreadExecutor();
+        try {
+            final Strategy slow = (view, deadline) -> {
+                try {
+                    Thread.sleep(SLOW_MILLIS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Turn.of(Turn.Change.rotate(new Coordinate(0, 0), true));
+            };
+            final ComputerPlayer player = new ComputerPlayer(slow, BUDGET, workers);
+            final GameConfig config = new GameConfig();
+            final GameSession session = new GameSession(config);
+            int calls = 0;
+            while (!(session.getActiveContext() instanceof PlayersContext) && calls++ < MAX_CALLS) {
+                final long start = System.nanoTime();
+                player.next(session);
+                Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(MAX_CALL_MILLIS));
+                Thread.sleep(1);
+            }
+            //the answer of the strategy has been dropped, the fallback shifted the first free row
+            final GameSession expected = new GameSession(config);
+            final int row = firstFreeRow(expected.getBoard());
+            expected.getBoard().shiftRow(row, true);
+            assertSamePatterns(expected.getBoard(), session.getBoard());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static void playChange(final GameSession session, final Turn turn) {
+        final ComputerPlayer player = new ComputerPlayer((view, deadline) -> turn);
+        int calls = 0;
+        while (!(session.getActiveContext() instanceof PlayersContext) && calls++ < MAX_CALLS) {
+            player.next(session);
+        }
+        Assertions.assertTrue(calls < MAX_CALLS);
+    }
+
+    private static int lastFreeColumn(final Board board) {
+        int column = board.getWidth() - 1;
+        while (board.getBlockedColumns().contains(column)) {
+            column--;
+        }
+        return column;
+    }
+
+    private static int firstFreeRow(final Board board) {
+        int row = 0;
+        while (board.getBlockedRows().contains(row)) {
+            row++;
+        }
+        return row;
+    }
+
+    private static void assertSamePatterns(final Board expected, final Board actual) {
+        for (int row = 0; row < expected.getHeight(); row++) {
+            for (int column = 0; column < expected.getWidth(); column++) {
+                Assertions.assertEquals(expected.getTile(row, column).getPatternMask(),
+                    actual.getTile(row, column).getPatternMask());
+            }
+        }
+    }
+}
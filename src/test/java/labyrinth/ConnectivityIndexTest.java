@@ -0,0 +1,86 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.ConnectivityIndex;
+import com.ccdr.labyrinth.game.GameBoard;
+import com.ccdr.labyrinth.game.Reachability;
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Material;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+class ConnectivityIndexTest {
+    private static final int SIZE = 21;
+    private static final int SOURCES = 4;
+    private static final int MAX_POINTS = 10;
+    private static final int CHANGES = 300;
+    private static final int CHECKS = 5;
+    private static final int KINDS_OF_CHANGE = 4;
+    private static final long SEED = 13;
+
+    @Test
+    void followsChanges() {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final GameBoard board = (GameBoard) new BoardGenerator(SIZE, SIZE, SOURCES, 2,
+            List.of(Material.WOOD, Material.SILK), random).generate(MAX_POINTS);
+        final ConnectivityIndex index = board.getConnectivity();
+        final Reachability reachability = new Reachability();
+        for (int change = 0; change < CHANGES; change++) {
+            final int line = random.nextInt(SIZE);
+            switch (random.nextInt(KINDS_OF_CHANGE)) {
+                case 0:
+                    board.shiftRow(line, random.nextBoolean());
+                    break;
+                case 1:
+                    board.shiftColumn(line, random.nextBoolean());
+                    break;
+                case 2:
+                    board.rotateClockWiseTile(new Coordinate(line, random.nextInt(SIZE)));
+                    break;
+                default:
+                    board.insertTile(new Coordinate(line, random.nextInt(SIZE)), new StandardTile());
+                    break;
+            }
+            for (int check = 0; check < CHECKS; check++) {
+                final Coordinate from = new Coordinate(random.nextInt(SIZE), random.nextInt(SIZE));
+                final int reached = reachability.compute(board, from, SIZE * SIZE);
+                final int component = index.getComponent(from);
+                Assertions.assertEquals(reached, index.getComponentSize(component));
+                for (int row = 0; row < SIZE; row++) {
+                    for (int column = 0; column < SIZE; column++) {
+                        Assertions.assertEquals(reachability.isReachable(row, column),
+                            index.getComponent(row, column) == component);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void queries() {
+        final GameBoard board = new GameBoard(1, 2);
+        final StandardTile left = new StandardTile();
+        final StandardTile right = new StandardTile();
+        board.insertTile(new Coordinate(0, 0), left);
+        board.insertTile(new Coordinate(0, 1), right);
+        //changes to a tile itself are not tracked, so the masks are set before the index is built
+        left.setPatternMask(Direction.UP.mask());
+        right.setPatternMask(Direction.LEFT.mask());
+        final ConnectivityIndex index = board.getConnectivity();
+        Assertions.assertFalse(index.connected(new Coordinate(0, 0), new Coordinate(0, 1)));
+        Assertions.assertEquals(2, index.getComponentCount());
+        //a rotation goes through the board, so the index notices it
+        board.rotateClockWiseTile(new Coordinate(0, 0));
+        Assertions.assertTrue(index.connected(new Coordinate(0, 0), new Coordinate(0, 1)));
+        Assertions.assertEquals(1, index.getComponentCount());
+        Assertions.assertEquals(2, index.getComponentSize(index.getComponent(0, 1)));
+        Assertions.assertEquals(-1, index.getComponent(new Coordinate(1, 0)));
+        Assertions.assertEquals(0, index.getComponentSize(index.getComponent(new Coordinate(1, 0))));
+    }
+}
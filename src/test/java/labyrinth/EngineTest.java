@@ -1,5 +1,7 @@
 package labyrinth;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
 
 import com.ccdr.labyrinth.engine.Engine;
@@ -33,4 +35,30 @@ class EngineTest {
         engine.start();
 
     }
+
+    @Test
+    void testFixedTick() {
+        final Engine engine = new Engine(10, 100);
+        final int[] ticks = new int[1];
+        engine.bindExecutor(ID.GAME, new Executor() {
+            @Override
+            public void onEnable() { }
+
+            @Override
+            public void fixedUpdate(final double tickDuration) {
+                ticks[0]++;
+            }
+
+            @Override
+            public void update(final double deltaTime) {
+                engine.stop();
+            }
+        });
+        engine.changeExecutor(ID.GAME);
+        engine.start();
+        //a single frame at 10 FPS lasts long enough for several ticks at 100 tick per second
+        assertTrue(ticks[0] > 1);
+        //the average is smoothed over the frames, so it never exceeds the worst frame
+        assertTrue(engine.getMaxJitter() >= engine.getAverageJitter());
+    }
 }
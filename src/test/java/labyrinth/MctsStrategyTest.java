@@ -0,0 +1,181 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.GameView;
+import com.ccdr.labyrinth.game.ai.ComputerPlayer;
+import com.ccdr.labyrinth.game.ai.MctsStrategy;
+import com.ccdr.labyrinth.game.ai.Strategy;
+import com.ccdr.labyrinth.game.ai.Turn;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.GuildTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.simulation.GameResult;
+import com.ccdr.labyrinth.simulation.HeadlessRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+class MctsStrategyTest {
+    private static final int MAX_INPUTS = 20_000;
+    private static final int GAMES = 2;
+    private static final int PLAYOUTS = 300;
+    //enough for the choices after the planned change to be clear on the smallest labyrinth, in a few turns
+    private static final int REUSE_PLAYOUTS = 10_000;
+    private static final int REUSE_INPUTS = 150;
+    private static final long SEED = 7;
+    //far enough that only the playouts stop the search
+    private static final Duration NO_DEADLINE = Duration.ofDays(1);
+    private static final int THREADS = 4;
+    private static final Duration BUDGET = Duration.ofMillis(100);
+    //time for the threads to see the deadline and stop
+    private static final long MAX_LATE_MILLIS = 200;
+
+    @Test
+    void finishesGames() {
+        for (long seed = 0; seed < GAMES; seed++) {
+            final GameConfig config = new GameConfig();
+            config.setSeed(seed);
+            final GameResult result = new HeadlessRunner(MAX_INPUTS)
+                .run(config, new ComputerPlayer(new MctsStrategy(PLAYOUTS, seed), NO_DEADLINE));
+            Assertions.assertTrue(result.finished());
+        }
+    }
+
+    @Test
+    void sameSeedSameTurn() {
+        final GameSession session = new GameSession(new GameConfig());
+        final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), session.getBoard(),
+            session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+        final long deadline = System.nanoTime() + NO_DEADLINE.toNanos();
+        final MctsStrategy first = new MctsStrategy(PLAYOUTS, SEED);
+        final MctsStrategy second = new MctsStrategy(PLAYOUTS, SEED);
+        Assertions.assertEquals(first.plan(view, deadline), second.plan(view, deadline));
+        Assertions.assertEquals(PLAYOUTS, first.getPlayouts());
+    }
+
+    @Test
+    void stopsAtTheDeadline() {
+        final GameSession session = new GameSession(new GameConfig());
+        final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), session.getBoard(),
+            session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+        final MctsStrategy strategy = new MctsStrategy();
+        //a deadline already passed leaves no time to play, but a turn is still given
+        Assertions.assertNotNull(strategy.plan(view, System.nanoTime() - 1));
+        Assertions.assertEquals(0, strategy.getPlayouts());
+    }
+
+    @Test
+    void guildAwayFromTheCentre() {
+        final GameSession session = new GameSession(new GameConfig());
+        final Board board = session.getBoard();
+        final Coordinate centre = new Coordinate(board.getHeight() / 2, board.getWidth() / 2);
+        final Coordinate corner = new Coordinate(0, 0);
+        final GuildTile guild = (GuildTile) board.getTile(centre);
+        final StandardTile moved = new StandardTile();
+        moved.setPatternMask(Direction.ALL_OPEN);
+        board.insertTile(centre, moved);
+        board.insertTile(corner, guild);
+        final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), board,
+            session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+        Assertions.assertEquals(Optional.of(corner), view.getGuild());
+        final long deadline = System.nanoTime() + NO_DEADLINE.toNanos();
+        Assertions.assertNotNull(new MctsStrategy(PLAYOUTS, SEED).plan(view, deadline));
+    }
+
+    @Test
+    void replanReusesThePlan() {
+        final MctsStrategy strategy = new MctsStrategy(REUSE_PLAYOUTS, SEED);
+        final int[] reused = new int[1];
+        final Strategy counting = new Strategy() {
+            @Override
+            public Turn plan(final GameSnapshot view, final long deadline) {
+                return strategy.plan(view, deadline);
+            }
+
+            @Override
+            public Turn replan(final GameSnapshot view, final Turn planned, final long deadline) {
+                final long before = strategy.getPlayouts();
+                final Turn turn = strategy.replan(view, planned, deadline);
+                //the tile to stop on was already chosen by the search of the plan
+                if (strategy.getPlayouts() == before) {
+                    reused[0]++;
+                }
+                return turn;
+            }
+        };
+        final GameConfig config = new GameConfig();
+        config.setSeed(SEED);
+        config.setLabyrinthHeight(GameConfig.LABYRINTH_SIZE_OPTIONS.get(0));
+        config.setLabyrinthWidth(GameConfig.LABYRINTH_SIZE_OPTIONS.get(0));
+        new HeadlessRunner(REUSE_INPUTS).run(config, new ComputerPlayer(counting, NO_DEADLINE));
+        Assertions.assertTrue(reused[0] > 0);
+    }
+
+    @Test
+    void logsEverySearch() {
+        final Logger logger = Logger.getLogger(MctsStrategy.class.getName());
+        final Level level = logger.getLevel();
+        final List<String> messages = new ArrayList<>();
+        final Handler handler = new Handler() {
+            @Override
+            public void publish(final LogRecord logged) {
+                messages.add(logged.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.setLevel(Level.FINE);
+        logger.addHandler(handler);
+        try {
+            final GameSession session = new GameSession(new GameConfig());
+            final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), session.getBoard(),
+                session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+            new MctsStrategy(PLAYOUTS, SEED).plan(view, System.nanoTime() + NO_DEADLINE.toNanos());
+            Assertions.assertEquals(1, messages.size());
+            Assertions.assertTrue(messages.get(0).startsWith(PLAYOUTS + " playouts"));
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    void searchesOnAPool() {
+        final ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            final GameSession session = new GameSession(new GameConfig());
+            final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), session.getBoard(),
+                session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+            final MctsStrategy strategy = new MctsStrategy(pool);
+            final long deadline = System.nanoTime() + BUDGET.toNanos();
+            Assertions.assertNotNull(strategy.plan(view, deadline));
+            Assertions.assertTrue(System.nanoTime() - deadline < TimeUnit.MILLISECONDS.toNanos(MAX_LATE_MILLIS));
+            Assertions.assertTrue(strategy.getPlayouts() > 0);
+            Assertions.assertTrue(strategy.getPlayoutsPerSecond() > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
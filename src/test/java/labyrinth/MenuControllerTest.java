@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GamePreloader;
+import com.ccdr.labyrinth.game.GameSession;
 import com.ccdr.labyrinth.menu.MenuController;
 
 class MenuControllerTest {
@@ -51,4 +53,24 @@ class MenuControllerTest {
         controller.select();
         assertTrue(this.signal);
     }
+
+    @Test
+    void testPreload() {
+        final MenuController controller = new MenuController();
+        final GamePreloader preloader = new GamePreloader();
+        controller.onConfigChanged(config -> {
+            preloader.preload(config);
+            this.signal = true;
+        });
+        controller.onPlay(config -> {
+            final GameSession session = preloader.take(config);
+            assertEquals(config.getSeed(), session.getSeed());
+            assertEquals(config.getLabyrinthWidth(), session.getBoard().getWidth());
+        });
+        //the first config is sent as soon as the menu opens
+        controller.onEnable();
+        assertTrue(this.signal);
+        controller.select();
+        preloader.shutdown();
+    }
 }
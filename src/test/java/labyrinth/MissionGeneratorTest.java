@@ -0,0 +1,69 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.generator.MissionGenerator;
+import com.ccdr.labyrinth.game.util.Category;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.game.util.Material;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Class test for the generation of missions.
+ */
+class MissionGeneratorTest {
+    private static final long SEED = 3;
+    private static final int TOURNAMENT = 500;
+    private static final int SOURCES = 4;
+
+    /**
+     * Every material gets two pairs of different categories before any couple is repeated.
+     */
+    @Test
+    void testCouplesNotRepeated() {
+        final int couples = Material.values().length * (Category.values().length / 2 * 2);
+        final List<Item> missions = new MissionGenerator(new SplittableRandom(SEED)).generateMissions(couples);
+        final Set<String> seen = new HashSet<>();
+        for (final Item mission : missions) {
+            assertTrue(seen.add(mission.getCategory() + "/" + mission.getMaterial()));
+        }
+    }
+
+    /**
+     * Missions come in pairs with the same material, however many they are.
+     */
+    @Test
+    void testManyMissions() {
+        final MissionGenerator generator = new MissionGenerator(new SplittableRandom(SEED));
+        final List<Item> missions = generator.generateMissions(TOURNAMENT);
+        assertEquals(TOURNAMENT, missions.size());
+        for (int i = 0; i < TOURNAMENT; i += 2) {
+            assertEquals(missions.get(i).getMaterial(), missions.get(i + 1).getMaterial());
+        }
+        assertEquals(Material.values().length, generator.materialPresents().size());
+    }
+
+    /**
+     * Quantities follow the sources of their material.
+     */
+    @Test
+    void testTuning() {
+        final List<Item> missions = new MissionGenerator(new SplittableRandom(SEED)).generateMissions(2);
+        final Material material = missions.get(0).getMaterial();
+        final int quantity = missions.get(0).getQuantity();
+        MissionGenerator.tune(missions, Map.of(material, SOURCES));
+        assertEquals(quantity, missions.get(0).getQuantity());
+        MissionGenerator.tune(missions, Map.of(material, SOURCES * 2));
+        assertEquals(quantity * 2, missions.get(0).getQuantity());
+        MissionGenerator.tune(missions, Map.of());
+        assertEquals(quantity, missions.get(0).getQuantity());
+    }
+}
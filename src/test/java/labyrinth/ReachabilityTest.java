@@ -0,0 +1,127 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameBoard;
+import com.ccdr.labyrinth.game.Reachability;
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Direction;
+import com.ccdr.labyrinth.game.util.Material;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class ReachabilityTest {
+    private static final int SIZE = 3;
+    private static final int LARGE_SIZE = 45;
+    private static final int MAX_DICE = 6;
+    private static final long SEED = 5;
+    private final Reachability reachability = new Reachability();
+
+    @Test
+    void openBoard() {
+        final Board board = openBoard(SIZE);
+        Assertions.assertEquals(SIZE * 2, this.reachability.compute(board, new Coordinate(0, 0), 2));
+        Assertions.assertEquals(0, this.reachability.getDistance(0, 0));
+        Assertions.assertEquals(2, this.reachability.getDistance(1, 1));
+        Assertions.assertEquals(-1, this.reachability.getDistance(2, 2));
+        Assertions.assertEquals(SIZE * SIZE, this.reachability.compute(board, new Coordinate(1, 1), MAX_DICE));
+        Assertions.assertEquals(SIZE * SIZE, this.reachability.toBitSet().cardinality());
+    }
+
+    @Test
+    void negativeMoves() {
+        final Board board = openBoard(SIZE);
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> this.reachability.compute(board, new Coordinate(0, 0), -1));
+    }
+
+    @Test
+    void wallsStopMoves() {
+        final Board board = openBoard(SIZE);
+        //the right tile is open, but the wall of the left one is enough to block the move
+        board.getTile(0, 0).setPatternMask(Direction.DOWN.mask());
+        Assertions.assertEquals(2 + 2, this.reachability.compute(board, new Coordinate(0, 0), 2));
+        Assertions.assertFalse(this.reachability.isReachable(0, 1));
+        Assertions.assertTrue(this.reachability.isReachable(1, 1));
+        Assertions.assertEquals(List.of(Direction.DOWN, Direction.RIGHT), this.reachability.getPath(1, 1));
+        Assertions.assertEquals(List.of(), this.reachability.getPath(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> this.reachability.getPath(0, 1));
+        Assertions.assertEquals(1, this.reachability.compute(board, new Coordinate(0, 0), 0));
+    }
+
+    @Test
+    void sameAsBreadthFirstSearch() {
+        final Board board = new BoardGenerator(LARGE_SIZE, LARGE_SIZE, MAX_DICE, 2,
+            List.of(Material.COAL, Material.IRON), new SplittableRandom(SEED)).generate(MAX_DICE);
+        final Board small = openBoard(SIZE);
+        for (int row = 0; row < LARGE_SIZE; row++) {
+            final int[][] expected = distances(board, new Coordinate(row, row), MAX_DICE);
+            int reached = 0;
+            this.reachability.compute(board, new Coordinate(row, row), MAX_DICE);
+            //every tile of the board is checked, the unreached ones too
+            for (int cellRow = 0; cellRow < LARGE_SIZE; cellRow++) {
+                for (int column = 0; column < LARGE_SIZE; column++) {
+                    Assertions.assertEquals(expected[cellRow][column],
+                        this.reachability.getDistance(cellRow, column));
+                    Assertions.assertEquals(expected[cellRow][column] >= 0,
+                        this.reachability.isReachable(cellRow, column));
+                    reached += expected[cellRow][column] >= 0 ? 1 : 0;
+                }
+            }
+            Assertions.assertEquals(reached, this.reachability.getReachedCount());
+            //the same object works again on a smaller board
+            Assertions.assertEquals(SIZE * SIZE, this.reachability.compute(small, new Coordinate(0, 0), MAX_DICE));
+        }
+    }
+
+    //plain breadth-first search over the tiles, -1 for the ones farther than the given moves
+    private static int[][] distances(final Board board, final Coordinate start, final int moves) {
+        final int[][] distances = new int[board.getHeight()][board.getWidth()];
+        for (final int[] row : distances) {
+            Arrays.fill(row, -1);
+        }
+        final Deque<Coordinate> queue = new ArrayDeque<>();
+        distances[start.row()][start.column()] = 0;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final Coordinate current = queue.poll();
+            final int distance = distances[current.row()][current.column()];
+            if (distance == moves) {
+                continue;
+            }
+            for (final Direction access : Direction.values()) {
+                final int row = current.row() + access.rowStep();
+                final int column = current.column() + access.columnStep();
+                final Tile next = board.getTile(row, column);
+                if (next != null && distances[row][column] < 0
+                    && board.getTile(current.row(), current.column()).isOpen(access)
+                    && next.isOpen(access.opposite())) {
+                    distances[row][column] = distance + 1;
+                    queue.add(new Coordinate(row, column));
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static Board openBoard(final int size) {
+        final Board board = new GameBoard(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                final StandardTile tile = new StandardTile();
+                tile.setPatternMask(Direction.ALL_OPEN);
+                board.insertTile(new Coordinate(row, column), tile);
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,93 @@
+package labyrinth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.context.UpdateBoardContext;
+import com.ccdr.labyrinth.game.tiles.Board;
+import com.ccdr.labyrinth.game.tiles.Tile;
+import com.ccdr.labyrinth.game.util.Item;
+import com.ccdr.labyrinth.simulation.BatchRunner;
+import com.ccdr.labyrinth.simulation.BatchStats;
+import com.ccdr.labyrinth.simulation.GameResult;
+import com.ccdr.labyrinth.simulation.HeadlessRunner;
+import com.ccdr.labyrinth.simulation.RandomInputSource;
+
+class SimulationTest {
+    private static final int MAX_INPUTS = 10_000;
+    private static final int GAMES = 8;
+    private static final long SEED = 42;
+
+    @Test
+    void testHeadlessGame() {
+        final GameConfig config = new GameConfig();
+        final GameResult result = new HeadlessRunner(MAX_INPUTS).run(config, new RandomInputSource(new Random(0)));
+        assertEquals(config.getPlayerCountOptions(), result.points().size());
+        assertTrue(result.inputs() <= MAX_INPUTS);
+        assertTrue(result.finished() || result.inputs() == MAX_INPUTS);
+    }
+
+    @Test
+    void testSessionInputs() {
+        final GameSession session = new GameSession(new GameConfig());
+        assertTrue(session.getActiveContext() instanceof UpdateBoardContext);
+        //dismissing the turn popup moves to the labyrinth manipulation
+        session.primary();
+        assertFalse(session.getActiveContext() instanceof UpdateBoardContext);
+        assertEquals(1, session.getInputCount());
+        //a source that does nothing must not keep the runner busy
+        final GameResult result = new HeadlessRunner(MAX_INPUTS).run(session, s -> { });
+        assertEquals(1, result.inputs());
+        session.forceGameOver();
+        assertTrue(session.isOver());
+    }
+
+    @Test
+    void testBatchIsReproducible() {
+        final BatchRunner batch = new BatchRunner(new HeadlessRunner(MAX_INPUTS), 2);
+        final BatchStats first = batch.run(new GameConfig(), GAMES, SEED, RandomInputSource::new);
+        final BatchStats second = batch.run(new GameConfig(), GAMES, SEED, RandomInputSource::new);
+        assertEquals(GAMES, first.games());
+        assertEquals(first, second);
+        assertEquals(1.0, first.winRates().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+    }
+
+    @Test
+    void testSeedReproducible() {
+        final GameConfig config = new GameConfig();
+        config.setSeed(SEED);
+        final GameSession first = new GameSession(config);
+        final GameSession second = new GameSession(config);
+        final Board board = first.getBoard();
+        for (int row = 0; row < board.getHeight(); row++) {
+            for (int column = 0; column < board.getWidth(); column++) {
+                final Tile expected = board.getTile(row, column);
+                final Tile actual = second.getBoard().getTile(row, column);
+                assertEquals(expected.getClass(), actual.getClass());
+                assertEquals(expected.getPatternMask(), actual.getPatternMask());
+            }
+        }
+        final List<Item> missions = second.getGuildContext().getListOfMissions();
+        for (int i = 0; i < missions.size(); i++) {
+            final Item expected = first.getGuildContext().getListOfMissions().get(i);
+            assertEquals(expected.getMaterial(), missions.get(i).getMaterial());
+            assertEquals(expected.getQuantity(), missions.get(i).getQuantity());
+        }
+        //the same inputs roll the same dice
+        first.primary();
+        first.primary();
+        first.primary();
+        second.primary();
+        second.primary();
+        second.primary();
+        assertEquals(first.getPlayersContext().getDiceValue(), second.getPlayersContext().getDiceValue());
+    }
+}
@@ -112,4 +112,65 @@ class TileInteractionTest {
         shifted = obtainShiftedColumn(maze, 0);
         Assertions.assertEquals(starting, shifted);
     }
+
+    @Test
+    void tileAccessTest() {
+        final Board maze = new GameBoard(HEIGHT, WIDTH);
+        final Tile source = new SourceTile(Material.COAL, 1);
+        for (int i = 0; i < HEIGHT; i++) {
+            for (int j = 0; j < WIDTH; j++) {
+                maze.insertTile(new Coordinate(i, j), new StandardTile());
+            }
+        }
+        maze.insertTile(new Coordinate(2, 3), source);
+        Assertions.assertEquals(HEIGHT * WIDTH, maze.getMap().size());
+        Assertions.assertSame(source, maze.getTile(2, 3));
+        Assertions.assertSame(source, maze.getMap().get(new Coordinate(2, 3)));
+        Assertions.assertNull(maze.getTile(HEIGHT, 0));
+        Assertions.assertNull(maze.getTile(0, -1));
+        Assertions.assertFalse(maze.getMap().containsKey(new Coordinate(-1, 0)));
+    }
+
+    @Test
+    void shiftWrapAroundTest() {
+        final Board maze = new GameBoard(HEIGHT, WIDTH);
+        final Tile[][] inserted = new Tile[HEIGHT][WIDTH];
+        for (int i = 0; i < HEIGHT; i++) {
+            for (int j = 0; j < WIDTH; j++) {
+                inserted[i][j] = new StandardTile();
+                maze.insertTile(new Coordinate(i, j), inserted[i][j]);
+            }
+        }
+        //a full cycle of shifts must bring every tile back, and only the shifted line must move
+        maze.shiftColumn(1, true);
+        Assertions.assertSame(inserted[HEIGHT - 1][1], maze.getTile(0, 1));
+        Assertions.assertSame(inserted[0][2], maze.getTile(0, 2));
+        for (int i = 1; i < HEIGHT; i++) {
+            maze.shiftColumn(1, true);
+        }
+        for (int j = 0; j < WIDTH; j++) {
+            maze.shiftRow(3, false);
+        }
+        for (int i = 0; i < HEIGHT; i++) {
+            for (int j = 0; j < WIDTH; j++) {
+                Assertions.assertSame(inserted[i][j], maze.getTile(i, j));
+            }
+        }
+    }
+
+    @Test
+    void patternMaskTest() {
+        final Tile tile = new StandardTile();
+        tile.setPatternMask(Direction.UP.mask() | Direction.RIGHT.mask());
+        Assertions.assertTrue(tile.isOpen(Direction.UP));
+        Assertions.assertFalse(tile.isOpen(Direction.LEFT));
+        tile.rotate(false);
+        Assertions.assertEquals(Direction.UP.mask() | Direction.LEFT.mask(), tile.getPatternMask());
+        tile.setPattern(Map.of(Direction.LEFT, false, Direction.DOWN, true));
+        Assertions.assertEquals(Direction.UP.mask() | Direction.DOWN.mask(), tile.getPatternMask());
+        for (int i = 0; i < Direction.PATTERN_BITS; i++) {
+            tile.rotate(true);
+        }
+        Assertions.assertEquals(Direction.UP.mask() | Direction.DOWN.mask(), tile.getPatternMask());
+    }
 }
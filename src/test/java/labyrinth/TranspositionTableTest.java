@@ -0,0 +1,75 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.ai.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class TranspositionTableTest {
+    private static final long MISSING = -1;
+    private static final int BUCKETS = 4;
+    private static final int THREADS = 4;
+    private static final int WRITES = 100_000;
+    //hashes spread over all the bits, like the ones of real positions
+    private static final long SPREAD = 0x9e3779b97f4a7c15L;
+
+    @Test
+    void storesAndReplaces() {
+        final TranspositionTable table = new TranspositionTable(3);
+        Assertions.assertEquals(BUCKETS * 2, table.capacity());
+        Assertions.assertEquals(MISSING, table.get(1, 0, MISSING));
+        table.put(1, 10, 5);
+        Assertions.assertEquals(10, table.get(1, 0, MISSING));
+        Assertions.assertEquals(MISSING, table.get(1, 6, MISSING));
+        //the same bucket: the second slot takes the result with a lower priority
+        table.put(1 + BUCKETS, 20, 1);
+        Assertions.assertEquals(10, table.get(1, 0, MISSING));
+        Assertions.assertEquals(20, table.get(1 + BUCKETS, 0, MISSING));
+        //and a third result replaces it
+        table.put(1 + 2 * BUCKETS, 30, 1);
+        Assertions.assertEquals(MISSING, table.get(1 + BUCKETS, 0, MISSING));
+        Assertions.assertEquals(30, table.get(1 + 2 * BUCKETS, 0, MISSING));
+        //a higher priority takes the first slot
+        table.put(1 + BUCKETS, 40, 9);
+        Assertions.assertEquals(40, table.get(1 + BUCKETS, 0, MISSING));
+        Assertions.assertEquals(MISSING, table.get(1, 0, MISSING));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.put(1, 1, Long.MIN_VALUE));
+        table.clear();
+        Assertions.assertEquals(MISSING, table.get(1 + BUCKETS, 0, MISSING));
+        Assertions.assertEquals(MISSING, table.get(1 + 2 * BUCKETS, 0, MISSING));
+    }
+
+    @Test
+    void neverMixesResults() throws InterruptedException {
+        //every thread writes results that tell the hash they belong to, a torn slot would be noticed
+        final TranspositionTable table = new TranspositionTable(1);
+        final List<Thread> threads = new ArrayList<>();
+        final List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final long owner = t;
+            threads.add(new Thread(() -> {
+                for (int write = 0; write < WRITES; write++) {
+                    table.put(owner * SPREAD, owner * WRITES + write, write);
+                    for (long other = 0; other < THREADS; other++) {
+                        final long value = table.get(other * SPREAD, 0, MISSING);
+                        if (value != MISSING && value / WRITES != other) {
+                            synchronized (failures) {
+                                failures.add(new AssertionError(other + " read " + value));
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertTrue(failures.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package labyrinth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.ccdr.labyrinth.game.GameBoard;
+import com.ccdr.labyrinth.game.GameConfig;
+import com.ccdr.labyrinth.game.GameSession;
+import com.ccdr.labyrinth.game.GameSnapshot;
+import com.ccdr.labyrinth.game.GameView;
+import com.ccdr.labyrinth.game.ZobristHash;
+import com.ccdr.labyrinth.game.generator.BoardGenerator;
+import com.ccdr.labyrinth.game.player.PlayerImpl;
+import com.ccdr.labyrinth.game.tiles.SourceTile;
+import com.ccdr.labyrinth.game.tiles.StandardTile;
+import com.ccdr.labyrinth.game.util.Coordinate;
+import com.ccdr.labyrinth.game.util.Material;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class ZobristHashTest {
+    private static final int SIZE = 15;
+    private static final int SOURCES = 4;
+    private static final int MAX_POINTS = 10;
+    private static final int CHANGES = 200;
+    private static final int KINDS_OF_CHANGE = 4;
+    private static final long SEED = 21;
+
+    @Test
+    void followsChanges() {
+        final GameBoard board = generate();
+        final ZobristHash hash = board.getZobristHash();
+        final long start = hash.getHash();
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final GameBoard replayed = generate();
+        for (int change = 0; change < CHANGES; change++) {
+            final int line = random.nextInt(SIZE);
+            final Coordinate tile = new Coordinate(line, random.nextInt(SIZE));
+            switch (random.nextInt(KINDS_OF_CHANGE)) {
+                case 0:
+                    final boolean forward = random.nextBoolean();
+                    board.shiftRow(line, forward);
+                    replayed.shiftRow(line, forward);
+                    break;
+                case 1:
+                    board.shiftColumn(line, true);
+                    replayed.shiftColumn(line, true);
+                    break;
+                case 2:
+                    board.rotateClockWiseTile(tile);
+                    replayed.rotateClockWiseTile(tile);
+                    break;
+                default:
+                    board.rotateCounterClockWiseTile(tile);
+                    replayed.rotateCounterClockWiseTile(tile);
+                    break;
+            }
+        }
+        Assertions.assertNotEquals(start, hash.getHash());
+        //the hash kept up to date matches the one of a board hashed only at the end
+        Assertions.assertEquals(replayed.getZobristHash().getHash(), hash.getHash());
+    }
+
+    @Test
+    void samePositionSameHash() {
+        final GameBoard board = generate();
+        final ZobristHash hash = board.getZobristHash();
+        final long start = hash.getHash();
+        board.shiftRow(1, true);
+        Assertions.assertNotEquals(start, hash.getHash());
+        board.shiftRow(1, false);
+        Assertions.assertEquals(start, hash.getHash());
+        final Coordinate tile = new Coordinate(1, 1);
+        for (int turn = 0; turn < 4; turn++) {
+            board.rotateClockWiseTile(tile);
+        }
+        Assertions.assertEquals(start, hash.getHash());
+        final List<Coordinate> players = List.of(new Coordinate(0, 0), new Coordinate(0, SIZE - 1));
+        final List<Coordinate> swapped = List.of(players.get(1), players.get(0));
+        Assertions.assertNotEquals(hash.withPlayers(players), hash.withPlayers(swapped));
+    }
+
+    @Test
+    void tilesChangedByThemselves() {
+        final GameBoard board = new GameBoard(1, 2);
+        final SourceTile source = new SourceTile(Material.WOOD, 1);
+        board.insertTile(new Coordinate(0, 0), source);
+        board.insertTile(new Coordinate(0, 1), new StandardTile(Material.WOOD, 1));
+        final ZobristHash hash = board.getZobristHash();
+        final long start = hash.getHash();
+        source.onEnter(new PlayerImpl());
+        //the source changed without the board knowing, until it is told
+        Assertions.assertEquals(start, hash.getHash());
+        board.tileChanged(new Coordinate(0, 0));
+        Assertions.assertNotEquals(start, hash.getHash());
+        final GameBoard same = new GameBoard(1, 2);
+        same.insertTile(new Coordinate(0, 0), new SourceTile(Material.WOOD, 1, 0, 2));
+        same.insertTile(new Coordinate(0, 1), new StandardTile(Material.WOOD, 1));
+        Assertions.assertEquals(same.getZobristHash().getHash(), hash.getHash());
+    }
+
+    @Test
+    void snapshotHashedTheSameWay() {
+        final GameSession session = new GameSession(new GameConfig());
+        final GameBoard board = (GameBoard) session.getBoard();
+        final GameSnapshot view = GameSnapshot.capture(EnumSet.allOf(GameView.Region.class), board,
+            session.getPlayersContext(), session.getGuildContext(), session.getActiveContext());
+        long copied = 0;
+        for (int row = 0; row < view.getHeight(); row++) {
+            for (int column = 0; column < view.getWidth(); column++) {
+                if (view.hasTile(row, column)) {
+                    copied ^= ZobristHash.key(row * view.getWidth() + column, view.getTileState(row, column));
+                }
+            }
+        }
+        Assertions.assertEquals(board.getZobristHash().getHash(), copied);
+        final Coordinate tile = new Coordinate(1, 1);
+        final long state = view.getTileState(tile.row(), tile.column());
+        board.rotateClockWiseTile(tile);
+        Assertions.assertEquals(ZobristHash.state(board.getTile(tile)),
+            ZobristHash.withPattern(state, board.getTile(tile).getPatternMask()));
+    }
+
+    private static GameBoard generate() {
+        return (GameBoard) new BoardGenerator(SIZE, SIZE, SOURCES, 2, List.of(Material.WOOD, Material.SILK),
+            new SplittableRandom(SEED)).generate(MAX_POINTS);
+    }
+}